@@ -0,0 +1,114 @@
+package com.example;
+
+import com.example.version.AssetManifest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GreetingControllerTest가 다루는 캐싱 방식마다 필터와 인터셉터를 모두 거친 요청 한 번의 비용을 잰다.
+ * 애플리케이션 컨텍스트는 한 번만 띄우고 MockMvc로 요청하므로 네트워크 비용은 빠진다.
+ * <ul>
+ *     <li>noCache: / (no-cache, private)</li>
+ *     <li>etag, etagNotModified: /etag. 두 번째는 If-None-Match가 같아서 304</li>
+ *     <li>compressed: / 를 Accept-Encoding: gzip으로 요청</li>
+ *     <li>versioned, versionedNotModified: 버전이 붙은 정적 파일. 두 번째는 304</li>
+ * </ul>
+ * ./gradlew :cache:jmh -PjmhIncludes=CacheStrategyRoundTripBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheStrategyRoundTripBenchmark {
+
+    @Param({"noCache", "etag", "etagNotModified", "compressed", "versioned", "versionedNotModified"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String versionedUri;
+    private String etagOfEtag;
+    private String etagOfVersioned;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(App.class)
+                .properties("server.port=0", "cache.metrics.log-interval=0", "logging.level.root=warn")
+                .run();
+        mockMvc = mockMvc((WebApplicationContext) context);
+        versionedUri = context.getBean(AssetManifest.class).getUrl("/js/index.js");
+        etagOfEtag = perform(get("/etag")).getHeader(HttpHeaders.ETAG);
+        etagOfVersioned = perform(get(versionedUri)).getHeader(HttpHeaders.ETAG);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse roundTrip() throws Exception {
+        switch (strategy) {
+            case "noCache":
+                return perform(get("/"));
+            case "etag":
+                return perform(get("/etag"));
+            case "etagNotModified":
+                return perform(get("/etag").header(HttpHeaders.IF_NONE_MATCH, etagOfEtag));
+            case "compressed":
+                return perform(get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+            case "versioned":
+                return perform(get(versionedUri));
+            case "versionedNotModified":
+                return perform(get(versionedUri).header(HttpHeaders.IF_NONE_MATCH, etagOfVersioned));
+            default:
+                throw new IllegalArgumentException(strategy);
+        }
+    }
+
+    private MockHttpServletResponse perform(final MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    /**
+     * MockMvc는 서블릿 컨테이너에 등록한 필터를 모르므로 FilterRegistrationBean을 순서대로 직접 붙인다.
+     */
+    @SuppressWarnings("rawtypes")
+    private static MockMvc mockMvc(final WebApplicationContext context) {
+        final List<FilterRegistrationBean<?>> registrations = new ArrayList<>();
+        for (final FilterRegistrationBean<?> registration : context.getBeansOfType(FilterRegistrationBean.class).values()) {
+            registrations.add(registration);
+        }
+        AnnotationAwareOrderComparator.sort(registrations);
+
+        final DefaultMockMvcBuilder builder = MockMvcBuilders.webAppContextSetup(context);
+        for (final FilterRegistrationBean<?> registration : registrations) {
+            final Filter filter = registration.getFilter();
+            builder.addFilter(filter, registration.getUrlPatterns().toArray(new String[0]));
+        }
+        return builder.build();
+    }
+}
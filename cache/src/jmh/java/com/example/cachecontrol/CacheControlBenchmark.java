@@ -0,0 +1,60 @@
+package com.example.cachecontrol;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * 요청마다 CacheControl을 만들어 헤더 값을 직렬화하는 방식(GreetingController.cacheControl)과
+ * CachePolicyRegistry에서 미리 직렬화한 정책을 찾아 쓰는 방식(CacheControlInterceptor)을 비교한다.
+ * ./gradlew :cache:jmh -PjmhIncludes=CacheControlBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheControlBenchmark {
+
+    private static final Duration MAX_AGE = Duration.ofDays(365);
+
+    @Param({"/", "/resources/0123456789abcdef/js/index.js"})
+    private String path;
+
+    private CachePolicyRegistry registry;
+
+    @Setup
+    public void setUp() {
+        registry = CachePolicyRegistry.builder()
+                .add("/resources/**", CachePolicy.of(CacheControl.maxAge(MAX_AGE).cachePublic())
+                        .vary(HttpHeaders.ACCEPT_ENCODING)
+                        .expiresAfter(MAX_AGE))
+                .add("/**", CachePolicy.of(CacheControl.noCache().cachePrivate()))
+                .build();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse buildPerRequest() {
+        final var response = new MockHttpServletResponse();
+        final CacheControl cacheControl = path.startsWith("/resources/")
+                ? CacheControl.maxAge(MAX_AGE).cachePublic()
+                : CacheControl.noCache().cachePrivate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse registryLookup() {
+        final var response = new MockHttpServletResponse();
+        registry.find(path).applyTo(response);
+        return response;
+    }
+}
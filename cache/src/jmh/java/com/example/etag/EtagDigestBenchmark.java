@@ -0,0 +1,117 @@
+package com.example.etag;
+
+import com.example.version.AssetManifest;
+import com.example.version.ResourceVersion;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * 페이지 크기마다 ETag를 만드는 비용을 비교한다.
+ * <ul>
+ *     <li>shallowEtag: ShallowEtagHeaderFilter. 본문 전체를 버퍼링한 뒤 해시한다.</li>
+ *     <li>streamingEtagFirstRequest: 처음 보는 URL. 한 번 버퍼링한다.</li>
+ *     <li>streamingEtagKnown: ETag를 아는 URL. 버퍼링 없이 흘려보내면서 해시한다.</li>
+ *     <li>streamingEtagNotModified: If-None-Match가 같아서 컨트롤러 없이 304를 응답한다.</li>
+ * </ul>
+ * ./gradlew :cache:jmh -PjmhIncludes=EtagDigestBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EtagDigestBenchmark {
+
+    private static final String URI = "/etag";
+
+    @Param({"2048", "16384", "131072"})
+    private int size;
+
+    private byte[] body;
+    private ResourceVersion version;
+    private ShallowEtagHeaderFilter shallowFilter;
+    private StreamingEtagHeaderFilter knownFilter;
+    private String knownEtag;
+
+    @Setup
+    public void setUp() throws Exception {
+        body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+
+        final var manifest = new AssetManifest(new DefaultResourceLoader());
+        manifest.init();
+        version = new ResourceVersion(manifest,
+                new StaticListableBeanFactory().getBeanProvider(BuildProperties.class));
+        version.init();
+
+        shallowFilter = new ShallowEtagHeaderFilter();
+        knownFilter = new StreamingEtagHeaderFilter(version);
+        knownEtag = execute(knownFilter, new MockHttpServletRequest("GET", URI)).getHeader(HttpHeaders.ETAG);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse shallowEtag() throws Exception {
+        return execute(shallowFilter, new MockHttpServletRequest("GET", URI));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse streamingEtagFirstRequest() throws Exception {
+        return execute(new StreamingEtagHeaderFilter(version), new MockHttpServletRequest("GET", URI));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse streamingEtagKnown() throws Exception {
+        return execute(knownFilter, new MockHttpServletRequest("GET", URI));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse streamingEtagNotModified() throws Exception {
+        final var request = new MockHttpServletRequest("GET", URI);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, knownEtag);
+        return execute(knownFilter, request);
+    }
+
+    private MockHttpServletResponse execute(final Filter filter, final MockHttpServletRequest request)
+            throws Exception {
+        final var response = new MockHttpServletResponse();
+        new MockFilterChain(new BodyServlet(body), filter).doFilter(request, response);
+        return response;
+    }
+
+    private static final class BodyServlet extends HttpServlet {
+
+        private final byte[] body;
+
+        private BodyServlet(final byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+                throws ServletException, IOException {
+            response.setContentType("text/html;charset=UTF-8");
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.reactive;
+
+import com.example.App;
+import com.example.version.AssetManifest;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 재검증(If-None-Match)이 대부분인 트래픽에서 서블릿(톰캣)과 리액티브(Netty)가 같은 코어 수로 얼마나 많은 연결을 처리하는지 비교한다.
+ * connections만큼 요청을 동시에 보내고 모두 304를 받을 때까지를 한 번으로 센다. 절반은 /etag, 절반은 버전이 붙은 정적 파일이다.
+ * 실제 포트로 요청하므로 네트워크 스택 비용도 포함한다.
+ * <br>
+ * 코어당 처리량은 결과를 availableProcessors로 나눈 값이다. 서버 코어 수를 고정하려면 -XX:ActiveProcessorCount를 함께 준다.
+ * ./gradlew :cache:jmh -PjmhIncludes=RevalidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RevalidationBenchmark {
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    @Param({"64", "512"})
+    private int connections;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private List<HttpRequest> requests;
+
+    @Setup
+    public void setUp() throws Exception {
+        final SpringApplicationBuilder builder = new SpringApplicationBuilder(App.class)
+                .properties("server.port=0", "cache.metrics.log-interval=0", "logging.level.root=warn");
+        if ("reactive".equals(stack)) {
+            builder.profiles("reactive");
+        }
+        context = builder.run();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        final String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        final URI etagUri = URI.create(baseUrl + "/etag");
+        final URI versionedUri = URI.create(baseUrl + context.getBean(AssetManifest.class).getUrl("/js/index.js"));
+        final HttpRequest etagRequest = revalidation(etagUri, etag(etagUri));
+        final HttpRequest versionedRequest = revalidation(versionedUri, etag(versionedUri));
+
+        requests = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            requests.add(i % 2 == 0 ? etagRequest : versionedRequest);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int revalidate() {
+        final List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(connections);
+        for (final HttpRequest request : requests) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        int notModified = 0;
+        for (final CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 304) {
+                notModified++;
+            }
+        }
+        if (notModified != connections) {
+            throw new IllegalStateException("expected only 304 responses but got " + notModified + "/" + connections);
+        }
+        return notModified;
+    }
+
+    private String etag(final URI uri) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .headers()
+                .firstValue(HttpHeaders.ETAG)
+                .orElseThrow();
+    }
+
+    private static HttpRequest revalidation(final URI uri, final String etag) {
+        return HttpRequest.newBuilder(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .GET()
+                .build();
+    }
+}
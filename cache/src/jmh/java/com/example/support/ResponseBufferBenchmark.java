@@ -0,0 +1,103 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * 요청마다 배열을 새로 키우는 ContentCachingResponseWrapper와 BufferPool에서 빌리는
+ * PooledContentCachingResponseWrapper의 할당량을 여러 스레드에서 비교한다.
+ * 본문은 8KB씩 나눠 쓰고, 원래 응답은 받은 바이트를 버린다.
+ * 할당량(gc.alloc.rate.norm)은 gc 프로파일러로 본다.
+ * ./gradlew :cache:jmh -PjmhIncludes=ResponseBufferBenchmark -PjmhProfilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ResponseBufferBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"8192", "65536", "524288"})
+    private int size;
+
+    private byte[] chunk;
+    private BufferPool pool;
+
+    @Setup
+    public void setUp() {
+        chunk = new byte[CHUNK_SIZE];
+        pool = new BufferPool(1 << 20, 16L << 20);
+    }
+
+    @Benchmark
+    public int contentCachingWrapper() throws IOException {
+        final var wrapper = new ContentCachingResponseWrapper(new DiscardingResponse());
+        write(wrapper.getOutputStream());
+        final int written = wrapper.getContentSize();
+        wrapper.copyBodyToResponse();
+        return written;
+    }
+
+    @Benchmark
+    public int pooledWrapper() throws IOException {
+        final var wrapper = new PooledContentCachingResponseWrapper(new DiscardingResponse(), pool);
+        try {
+            write(wrapper.getOutputStream());
+            final int written = wrapper.getContentSize();
+            wrapper.copyBodyToResponse();
+            return written;
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    private void write(final ServletOutputStream outputStream) throws IOException {
+        for (int written = 0; written < size; written += CHUNK_SIZE) {
+            outputStream.write(chunk, 0, Math.min(CHUNK_SIZE, size - written));
+        }
+    }
+
+    private static final class DiscardingResponse extends HttpServletResponseWrapper {
+
+        private DiscardingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(final int b) {
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) {
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener writeListener) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.version;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * 요청마다 gzip으로 압축하는 톰캣 server.compression과 미리 만든 압축본을 그대로 쓰는 방식의 요청당 CPU 시간을 비교한다.
+ * 두 방식 모두 CacheBustingWebConfig와 같은 리졸버(EncodedResourceResolver, PathResourceResolver)로 파일을 찾아 내려준다.
+ * compressOnTheFly는 원본을 내려준 뒤 톰캣처럼 응답 본문을 압축한다.
+ * ./gradlew :cache:jmh -PjmhIncludes=PrecompressedResourceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrecompressedResourceBenchmark {
+
+    private static final String FILENAME = "index.js";
+
+    @Param({"1024", "65536", "1048576"})
+    private int size;
+
+    private Path directory;
+    private ResourceHttpRequestHandler handler;
+
+    @Setup
+    public void setUp() throws Exception {
+        final byte[] sample;
+        try (final InputStream inputStream = new ClassPathResource("static/js/index.js").getInputStream()) {
+            sample = inputStream.readAllBytes();
+        }
+        final byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = sample[i % sample.length];
+        }
+
+        directory = Files.createTempDirectory("precompressed");
+        Files.write(directory.resolve(FILENAME), content);
+        Files.write(directory.resolve(FILENAME + ".gz"), gzip(content));
+
+        handler = new ResourceHttpRequestHandler();
+        handler.setLocations(List.of(new FileSystemResource(directory.toString() + "/")));
+        handler.setResourceResolvers(List.of(new EncodedResourceResolver(), new PathResourceResolver()));
+        handler.setServletContext(new MockServletContext());
+        handler.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public byte[] compressOnTheFly() throws ServletException, IOException {
+        return gzip(serve(null).getContentAsByteArray());
+    }
+
+    @Benchmark
+    public byte[] servePrecompressed() throws ServletException, IOException {
+        return serve("gzip").getContentAsByteArray();
+    }
+
+    private MockHttpServletResponse serve(final String acceptEncoding) throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", "/resources/" + FILENAME);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, FILENAME);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        final var response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+
+    private static byte[] gzip(final byte[] bytes) throws IOException {
+        final var response = new ByteArrayOutputStream();
+        try (final var gzip = new GZIPOutputStream(response)) {
+            gzip.write(bytes);
+        }
+        return response.toByteArray();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.version;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * {{staticUrls '...'}}를 렌더링할 때마다 헬퍼로 푸는 방식과
+ * StaticUrlInliningTemplateCache가 컴파일할 때 URL로 바꿔 둔 템플릿을 비교한다.
+ * helperCall은 헬퍼 호출 자체(매니페스트 조회)의 비용이다.
+ * ./gradlew :cache:jmh -PjmhIncludes=StaticUrlsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StaticUrlsBenchmark {
+
+    private static final String TEMPLATE = "<script src=\"{{staticUrls '/js/index.js'}}\"></script>";
+
+    private VersionHandlebarsHelper helper;
+    private Template helperTemplate;
+    private Template inlinedTemplate;
+    private Context context;
+
+    @Setup
+    public void setUp() throws IOException {
+        final var manifest = new AssetManifest(new DefaultResourceLoader());
+        manifest.init();
+        helper = new VersionHandlebarsHelper(manifest);
+
+        helperTemplate = new Handlebars()
+                .registerHelpers(helper)
+                .compileInline(TEMPLATE);
+        inlinedTemplate = new Handlebars()
+                .with(new StaticUrlInliningTemplateCache(manifest, new PreloadLinks(manifest, "", "")))
+                .registerHelpers(helper)
+                .compileInline(TEMPLATE);
+        context = Context.newContext(Map.of());
+    }
+
+    @Benchmark
+    public String helperCall() {
+        return helper.staticUrls("/js/index.js", null);
+    }
+
+    @Benchmark
+    public String renderWithHelper() throws IOException {
+        return helperTemplate.apply(context);
+    }
+
+    @Benchmark
+    public String renderInlined() throws IOException {
+        return inlinedTemplate.apply(context);
+    }
+}
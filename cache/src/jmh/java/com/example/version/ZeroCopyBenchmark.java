@@ -0,0 +1,99 @@
+package com.example.version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 파일을 힙 버퍼로 읽어서 소켓에 쓰는 방식(ResourceHttpRequestHandler)과
+ * FileChannel.transferTo로 커널에서 바로 소켓으로 보내는 방식(ZeroCopyResourceFilter)의 처리량을 비교한다.
+ * 받는 쪽은 루프백 소켓에서 읽어서 버리기만 한다.
+ * ./gradlew :cache:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ZeroCopyBenchmark {
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    @Param({"1048576", "52428800"})
+    private int size;
+
+    private Path file;
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private Thread drain;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("zero-copy", ".bin");
+        final byte[] chunk = new byte[COPY_BUFFER_SIZE];
+        try (final OutputStream outputStream = Files.newOutputStream(file)) {
+            for (int written = 0; written < size; written += chunk.length) {
+                outputStream.write(chunk, 0, Math.min(chunk.length, size - written));
+            }
+        }
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+        client = SocketChannel.open(server.getLocalAddress());
+        final SocketChannel accepted = server.accept();
+        drain = new Thread(() -> {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            try (accepted) {
+                while (accepted.read(buffer.clear()) >= 0) {
+                    // 읽은 내용은 버린다.
+                }
+            } catch (IOException ignored) {
+                // 벤치마크가 끝나면서 소켓을 닫으면 빠져나온다.
+            }
+        }, "zero-copy-drain");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        client.close();
+        server.close();
+        drain.join(TimeUnit.SECONDS.toMillis(5));
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long heapCopy() throws IOException {
+        final OutputStream outputStream = Channels.newOutputStream(client);
+        try (final InputStream inputStream = Files.newInputStream(file)) {
+            return inputStream.transferTo(outputStream);
+        }
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        try (final FileChannel channel = FileChannel.open(file)) {
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, client);
+            }
+            return position;
+        }
+    }
+}
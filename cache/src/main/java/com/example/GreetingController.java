@@ -1,5 +1,7 @@
 package com.example;
 
+import com.example.etag.ConditionalView;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import javax.servlet.http.HttpServletResponse;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GreetingController {
 
     @GetMapping("/")
@@ -28,6 +31,10 @@ public class GreetingController {
         return "index";
     }
 
+    /**
+     * If-None-Match가 같으면 이 메서드는 호출되지 않는다.
+     */
+    @ConditionalView("index")
     @GetMapping("/etag")
     public String etag() {
         return "index";
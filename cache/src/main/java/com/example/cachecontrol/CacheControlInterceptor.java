@@ -2,20 +2,27 @@ package com.example.cachecontrol;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.springframework.http.CacheControl;
-import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * 요청 경로에 맞는 정책을 {@link CachePolicyRegistry}에서 찾아 미리 만들어 둔 헤더 값을 그대로 쓴다.
+ */
 public class CacheControlInterceptor implements HandlerInterceptor {
 
+    private final CachePolicyRegistry registry;
+
+    public CacheControlInterceptor(final CachePolicyRegistry registry) {
+        this.registry = registry;
+    }
+
     @Override
     public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
                              final Object handler) {
-        final String cacheControl = CacheControl
-                .noCache()
-                .cachePrivate()
-                .getHeaderValue();
-        response.addHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        final CachePolicy policy = registry.find(path);
+        if (policy != null) {
+            policy.applyTo(response);
+        }
 
         return true;
     }
@@ -0,0 +1,105 @@
+package com.example.cachecontrol;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 경로 패턴 하나에 적용할 캐시 헤더. 헤더 값은 만들 때 한 번만 직렬화해 둔다.
+ * Expires는 요청 시각에 따라 달라지므로 초 단위로 한 번만 포맷하고 같은 초 안에서는 재사용한다.
+ */
+public final class CachePolicy {
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final String cacheControl;
+    private final String vary;
+    private final long expiresAfterSeconds;
+    private volatile FormattedExpires expires;
+
+    private CachePolicy(final String cacheControl, final String vary, final long expiresAfterSeconds) {
+        this.cacheControl = cacheControl;
+        this.vary = vary;
+        this.expiresAfterSeconds = expiresAfterSeconds;
+    }
+
+    public static CachePolicy of(final CacheControl cacheControl) {
+        return new CachePolicy(cacheControl.getHeaderValue(), null, -1);
+    }
+
+    public CachePolicy vary(final String... requestHeaders) {
+        return new CachePolicy(cacheControl, String.join(", ", requestHeaders), expiresAfterSeconds);
+    }
+
+    /**
+     * Cache-Control을 모르는 HTTP/1.0 캐시를 위해 Expires도 보낸다.
+     */
+    public CachePolicy expiresAfter(final Duration duration) {
+        return new CachePolicy(cacheControl, vary, duration.getSeconds());
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    public String getVary() {
+        return vary;
+    }
+
+    public void applyTo(final HttpServletResponse response) {
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        if (vary != null) {
+            response.setHeader(HttpHeaders.VARY, vary);
+        }
+        if (expiresAfterSeconds >= 0) {
+            response.setHeader(HttpHeaders.EXPIRES, formattedExpires(System.currentTimeMillis() / 1000));
+        }
+    }
+
+    /**
+     * 리액티브 응답처럼 서블릿 응답이 없을 때 쓴다. 헤더 값은 applyTo(HttpServletResponse)와 같다.
+     */
+    public void applyTo(final HttpHeaders headers) {
+        if (cacheControl != null) {
+            headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        if (vary != null) {
+            headers.set(HttpHeaders.VARY, vary);
+        }
+        if (expiresAfterSeconds >= 0) {
+            headers.set(HttpHeaders.EXPIRES, formattedExpires(System.currentTimeMillis() / 1000));
+        }
+    }
+
+    private String formattedExpires(final long nowSeconds) {
+        final FormattedExpires current = expires;
+        if (current != null && current.second == nowSeconds) {
+            return current.value;
+        }
+        final String value = HTTP_DATE.format(Instant.ofEpochSecond(nowSeconds + expiresAfterSeconds));
+        expires = new FormattedExpires(nowSeconds, value);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "CachePolicy{cacheControl='" + cacheControl + "', vary='" + vary + "'}";
+    }
+
+    private static final class FormattedExpires {
+
+        private final long second;
+        private final String value;
+
+        private FormattedExpires(final long second, final String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+}
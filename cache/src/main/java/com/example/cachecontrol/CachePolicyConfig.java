@@ -0,0 +1,40 @@
+package com.example.cachecontrol;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCES_MAX_AGE;
+
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 서블릿(CacheControlInterceptor)과 리액티브(CachePolicyWebFilter) 모두 같은 정책을 쓰도록 따로 둔다.
+ */
+@Configuration
+public class CachePolicyConfig {
+
+    /**
+     * 버전이 붙은 정적 파일은 내용이 바뀌면 URL도 바뀌므로 1년 동안 공유 캐시에 둔다.
+     * 캐싱하는 페이지(resource-versioning)는 브라우저가 1분까지는 가진 페이지를 먼저 보여주고 뒤에서 다시 확인하게 하고,
+     * 서버가 오류를 내면 하루 동안 가진 페이지를 대신 쓰게 한다.
+     * 나머지는 매번 서버에 확인하게 한다.
+     */
+    @Bean
+    public CachePolicyRegistry cachePolicyRegistry() {
+        final CachePolicy staticResources = CachePolicy
+                .of(CacheControl.maxAge(STATIC_RESOURCES_MAX_AGE).cachePublic())
+                .vary(HttpHeaders.ACCEPT_ENCODING)
+                .expiresAfter(STATIC_RESOURCES_MAX_AGE);
+
+        return CachePolicyRegistry.builder()
+                .add(PREFIX_STATIC_RESOURCES + "/**", staticResources)
+                .add("/resource-versioning", CachePolicy.of(CacheControl.maxAge(Duration.ZERO)
+                        .cachePrivate()
+                        .staleWhileRevalidate(Duration.ofMinutes(1))
+                        .staleIfError(Duration.ofDays(1))))
+                .add("/**", CachePolicy.of(CacheControl.noCache().cachePrivate()))
+                .build();
+    }
+}
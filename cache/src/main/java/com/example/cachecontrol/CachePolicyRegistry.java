@@ -0,0 +1,110 @@
+package com.example.cachecontrol;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * 경로 패턴과 캐시 정책의 표. 시작할 때 패턴을 파싱하고 구체적인 패턴이 먼저 오도록 정렬해 둔다.
+ * 와일드카드가 없는 패턴은 해시 맵에서 바로 찾고, 한 번 찾은 경로의 결과는 기억해 두므로
+ * 같은 경로로 다시 들어온 요청은 맵 조회 한 번으로 끝난다.
+ */
+public final class CachePolicyRegistry {
+
+    private static final int MAX_RESOLVED_PATHS = 10_000;
+
+    private final Map<String, CachePolicy> exactPolicies;
+    private final List<PatternPolicy> patternPolicies;
+    private final CachePolicy defaultPolicy;
+    private final Map<String, CachePolicy> resolved = new ConcurrentHashMap<>();
+
+    private CachePolicyRegistry(final Map<String, CachePolicy> exactPolicies,
+                                final List<PatternPolicy> patternPolicies,
+                                final CachePolicy defaultPolicy) {
+        this.exactPolicies = exactPolicies;
+        this.patternPolicies = patternPolicies;
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 맞는 정책. 어떤 패턴에도 맞지 않고 기본 정책도 없으면 null
+     */
+    public CachePolicy find(final String path) {
+        final CachePolicy exact = exactPolicies.get(path);
+        if (exact != null) {
+            return exact;
+        }
+        final CachePolicy cached = resolved.get(path);
+        if (cached != null) {
+            return cached;
+        }
+
+        final CachePolicy policy = match(path);
+        if (policy != null && resolved.size() < MAX_RESOLVED_PATHS) {
+            resolved.put(path, policy);
+        }
+        return policy;
+    }
+
+    private CachePolicy match(final String path) {
+        final PathContainer pathContainer = PathContainer.parsePath(path);
+        for (final PatternPolicy patternPolicy : patternPolicies) {
+            if (patternPolicy.pattern.matches(pathContainer)) {
+                return patternPolicy.policy;
+            }
+        }
+        return defaultPolicy;
+    }
+
+    public static final class Builder {
+
+        private final PathPatternParser parser = new PathPatternParser();
+        private final Map<String, CachePolicy> exactPolicies = new HashMap<>();
+        private final List<PatternPolicy> patternPolicies = new ArrayList<>();
+        private CachePolicy defaultPolicy;
+
+        private Builder() {
+        }
+
+        public Builder add(final String pattern, final CachePolicy policy) {
+            if ("/**".equals(pattern)) {
+                defaultPolicy = policy;
+                return this;
+            }
+            final PathPattern pathPattern = parser.parse(pattern);
+            if (pathPattern.hasPatternSyntax()) {
+                patternPolicies.add(new PatternPolicy(pathPattern, policy));
+            } else {
+                exactPolicies.put(pattern, policy);
+            }
+            return this;
+        }
+
+        public CachePolicyRegistry build() {
+            final List<PatternPolicy> sorted = new ArrayList<>(patternPolicies);
+            sorted.sort(Comparator.comparing(patternPolicy -> patternPolicy.pattern, PathPattern.SPECIFICITY_COMPARATOR));
+            return new CachePolicyRegistry(Map.copyOf(exactPolicies), List.copyOf(sorted), defaultPolicy);
+        }
+    }
+
+    private static final class PatternPolicy {
+
+        private final PathPattern pattern;
+        private final CachePolicy policy;
+
+        private PatternPolicy(final PathPattern pattern, final CachePolicy policy) {
+            this.pattern = pattern;
+            this.policy = policy;
+        }
+    }
+}
@@ -1,14 +1,37 @@
 package com.example.cachecontrol;
 
+import com.example.etag.ConditionalViewInterceptor;
+import com.example.etag.ViewValidator;
+import com.example.version.PreloadLinkInterceptor;
+import com.example.version.PreloadLinks;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CacheWebConfig implements WebMvcConfigurer {
 
+    private final CachePolicyRegistry cachePolicyRegistry;
+    private final ViewValidator viewValidator;
+    private final PreloadLinks preloadLinks;
+
+    public CacheWebConfig(final CachePolicyRegistry cachePolicyRegistry, final ViewValidator viewValidator,
+                          final PreloadLinks preloadLinks) {
+        this.cachePolicyRegistry = cachePolicyRegistry;
+        this.viewValidator = viewValidator;
+        this.preloadLinks = preloadLinks;
+    }
+
+    /**
+     * 304 응답에도 Cache-Control이 있어야 하므로 CacheControlInterceptor를 먼저 등록한다.
+     * 304로 끝나는 요청에는 preload 링크가 필요 없으므로 PreloadLinkInterceptor는 ConditionalViewInterceptor 뒤에 둔다.
+     */
     @Override
     public void addInterceptors(final InterceptorRegistry registry) {
-        registry.addInterceptor(new CacheControlInterceptor());
+        registry.addInterceptor(new CacheControlInterceptor(cachePolicyRegistry));
+        registry.addInterceptor(new ConditionalViewInterceptor(viewValidator));
+        registry.addInterceptor(new PreloadLinkInterceptor(preloadLinks));
     }
 }
@@ -0,0 +1,637 @@
+package com.example.compression;
+
+import com.example.support.AcceptEncoding;
+import com.example.support.BufferPool;
+import com.example.support.PooledByteArrayOutputStream;
+import com.example.support.WeightedLruCache;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * server.compression(톰캣) 대신 쓰는 gzip 필터.
+ * <ul>
+ *     <li>손익분기 크기보다 작은 응답, 압축할 수 없는 타입, 이미 Content-Encoding이 있는 응답은 그대로 보낸다.</li>
+ *     <li>deflate 레벨은 그때의 CPU 사용률로 정한다.</li>
+ *     <li>ETag가 있고 private이나 no-store가 아닌 응답은 압축 결과를 (URL, ETag)로 보관해 다시 압축하지 않는다.</li>
+ * </ul>
+ * 본문은 손익분기 크기까지만 BufferPool에서 빌린 버퍼에 모은다. 그 안에서 끝나면 Content-Length를 붙여 그대로 보내고,
+ * 넘으면 그때의 상태와 헤더로 압축 여부를 정한 뒤 나머지는 버퍼링하지 않고 흘려보낸다(압축하면 GZIPOutputStream으로).
+ * 그래서 안쪽 ETag 필터가 버퍼링하지 않고 보내는 응답을 여기서 다시 모으지 않는다.
+ * <br>
+ * 압축한 응답의 강한 ETag는 원본 바이트로 계산한 것이므로 약한 ETag로 바꿔서 원본과 같은 강한 검증자를 쓰지 않게 한다.
+ * 스프링의 If-None-Match 비교는 약한 비교이므로 안쪽 필터의 304 판단은 그대로 된다.
+ * <br>
+ * 비동기 요청은 비동기 디스패치에서 같은 래퍼를 찾아 마무리한다. gzip을 받지 않는 요청은 이 필터를 거치지 않는다.
+ */
+public class AdaptiveCompressionFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+    private static final String WEAK_PREFIX = "W/";
+
+    private final int minSize;
+    private final Set<String> mimeTypes;
+    private final CompressionLevelSelector levelSelector;
+    private final WeightedLruCache<String, byte[]> compressedBodies;
+    private final long maxCachedBodySize;
+    private final CompressionMetrics metrics;
+    private final BufferPool bufferPool;
+
+    public AdaptiveCompressionFilter(final int minSize, final Set<String> mimeTypes,
+                                     final CompressionLevelSelector levelSelector,
+                                     final long cacheMaxSize, final CompressionMetrics metrics,
+                                     final BufferPool bufferPool) {
+        this.minSize = minSize;
+        this.mimeTypes = mimeTypes;
+        this.levelSelector = levelSelector;
+        this.compressedBodies = new WeightedLruCache<>(cacheMaxSize, body -> body.length);
+        // 압축본 하나가 캐시의 1/16을 넘으면 보관하지 않는다. 그보다 큰 응답은 압축하면서 모으지 않는다.
+        this.maxCachedBodySize = cacheMaxSize / 16;
+        this.metrics = metrics;
+        this.bufferPool = bufferPool;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final CompressingResponseWrapper responseWrapper;
+        if (isAsyncDispatch(request)) {
+            responseWrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        } else if (HttpMethod.GET.matches(request.getMethod()) && acceptsGzip(request)) {
+            responseWrapper = new CompressingResponseWrapper(request, response);
+        } else {
+            responseWrapper = null;
+        }
+        if (responseWrapper == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (!isAsyncStarted(request)) {
+                responseWrapper.finish();
+            }
+        } finally {
+            if (!isAsyncStarted(request)) {
+                responseWrapper.release();
+            }
+        }
+    }
+
+    private boolean shouldCompress(final HttpServletResponse response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.isCommitted()) {
+            return false;
+        }
+        if (response.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                || response.getHeader(HttpHeaders.CONTENT_RANGE) != null
+                || response.getHeader(HttpHeaders.TRAILER) != null) {
+            return false;
+        }
+        final String contentType = response.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        final MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.contains(mediaType.getType() + "/" + mediaType.getSubtype());
+    }
+
+    /**
+     * @param etag 압축한 응답에 붙일 ETag
+     */
+    private static String cacheKey(final HttpServletRequest request, final HttpServletResponse response,
+                                   final String etag) {
+        if (etag == null) {
+            return null;
+        }
+        final String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null && (cacheControl.contains("private") || cacheControl.contains("no-store"))) {
+            return null;
+        }
+        final String queryString = request.getQueryString();
+        final String url = queryString == null ? request.getRequestURI() : request.getRequestURI() + "?" + queryString;
+        return url + "|" + etag;
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        return AcceptEncoding.accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING), GZIP);
+    }
+
+    /**
+     * 원본 바이트로 계산한 강한 ETag를 압축본에 그대로 쓰면 두 표현이 같은 강한 검증자를 갖게 되므로 약한 ETag로 바꾼다.
+     */
+    private static String compressedEtag(final String etag) {
+        return etag == null || etag.startsWith(WEAK_PREFIX) ? etag : WEAK_PREFIX + etag;
+    }
+
+    private static void addVary(final HttpServletResponse response) {
+        final String vary = response.getHeader(HttpHeaders.VARY);
+        if (vary == null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        } else if (!vary.contains("*") && !vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+            response.setHeader(HttpHeaders.VARY, vary + ", " + HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    private enum Mode {
+        BUFFER, IDENTITY, GZIP, CACHED
+    }
+
+    /**
+     * 본문이 minSize에 닿을 때까지만 모으고, 닿으면 압축 여부를 정해서 그 뒤로는 흘려보낸다.
+     * <ul>
+     *     <li>BUFFER: 아직 정하지 않았다. flush해도 커밋하지 않는다.</li>
+     *     <li>IDENTITY: 그대로 보낸다.</li>
+     *     <li>GZIP: GZIPOutputStream으로 압축하면서 보낸다. 보관할 수 있으면 압축본도 함께 모은다.</li>
+     *     <li>CACHED: 보관해 둔 압축본을 이미 보냈으므로 핸들러가 쓰는 본문은 버린다.</li>
+     * </ul>
+     */
+    private final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private Mode mode = Mode.BUFFER;
+        private PooledByteArrayOutputStream head;
+        private Long contentLength;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private Gzip.StreamingGzipOutputStream gzip;
+        private CompressedOutputStream compressedOutput;
+        private String cacheKey;
+        private byte[] cached;
+        private long identityBytes;
+        private long compressNanos;
+
+        private CompressingResponseWrapper(final HttpServletRequest request, final HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called on this response.");
+            }
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called on this response.");
+                }
+                outputStream = new CompressingOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            flushBody();
+            if (mode != Mode.BUFFER) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (mode == Mode.GZIP || mode == Mode.CACHED) {
+                throw new IllegalStateException("cannot reset the buffer of a response that is being compressed");
+            }
+            if (head != null) {
+                head.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            abandonBody();
+            mode = Mode.BUFFER;
+            contentLength = null;
+        }
+
+        /**
+         * 압축하던 중이면 Content-Encoding을 지울 수 없으므로 헤더까지 모두 지운 뒤 오류 응답을 보낸다.
+         */
+        @Override
+        public void sendError(final int sc) throws IOException {
+            beforeReplacingBody();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            beforeReplacingBody();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            beforeReplacingBody();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void setContentLength(final int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(final long len) {
+            if (mode == Mode.BUFFER) {
+                contentLength = len;
+            } else if (mode == Mode.IDENTITY) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(final String name, final String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                setEtag(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(final String name, final String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                setEtag(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(final String name, final int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+                return;
+            }
+            super.setIntHeader(name, value);
+        }
+
+        @Override
+        public void addIntHeader(final String name, final int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+                return;
+            }
+            super.addIntHeader(name, value);
+        }
+
+        /**
+         * 핸들러가 끝난 뒤 호출한다. minSize 안에서 끝난 본문은 Content-Length를 붙여 그대로 보낸다.
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            final HttpServletResponse response = (HttpServletResponse) getResponse();
+            switch (mode) {
+                case BUFFER:
+                    final int size = head == null ? 0 : head.size();
+                    if (size > 0) {
+                        metrics.recordSkipped();
+                        if (!response.isCommitted() && response.getHeader(HttpHeaders.TRANSFER_ENCODING) == null) {
+                            response.setContentLength(size);
+                        }
+                        head.writeTo(response.getOutputStream());
+                    } else if (contentLength != null && !response.isCommitted()) {
+                        response.setContentLengthLong(contentLength);
+                    }
+                    break;
+                case IDENTITY:
+                    metrics.recordSkipped();
+                    break;
+                case GZIP:
+                    final long start = System.nanoTime();
+                    gzip.finish();
+                    compressNanos += System.nanoTime() - start;
+                    metrics.recordCompressed(identityBytes, compressedOutput.count, compressNanos);
+                    final byte[] compressed = compressedOutput.captured();
+                    if (compressed != null) {
+                        compressedBodies.put(cacheKey, compressed);
+                    }
+                    break;
+                case CACHED:
+                    metrics.recordCacheHit(identityBytes, cached.length);
+                    break;
+                default:
+                    break;
+            }
+            weakenNotModifiedEtag(response);
+        }
+
+        /**
+         * 빌린 버퍼와 Deflater를 돌려준다. 여러 번 불러도 된다.
+         */
+        void release() {
+            if (head != null) {
+                head.close();
+                head = null;
+            }
+            if (gzip != null) {
+                gzip.end();
+            }
+            if (compressedOutput != null) {
+                compressedOutput.release();
+            }
+        }
+
+        private void write(final byte[] b, final int off, final int len) throws IOException {
+            if (mode == Mode.BUFFER) {
+                if (head == null && minSize > 0) {
+                    head = new PooledByteArrayOutputStream(bufferPool, minSize);
+                }
+                if (head != null && head.size() + len < minSize) {
+                    head.write(b, off, len);
+                    return;
+                }
+                decide();
+            }
+            identityBytes += len;
+            switch (mode) {
+                case IDENTITY:
+                    getResponse().getOutputStream().write(b, off, len);
+                    break;
+                case GZIP:
+                    final long start = System.nanoTime();
+                    gzip.write(b, off, len);
+                    compressNanos += System.nanoTime() - start;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void flushBody() throws IOException {
+            if (mode == Mode.GZIP) {
+                gzip.flush();
+            } else if (mode == Mode.IDENTITY) {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        /**
+         * 본문이 minSize에 닿았을 때 그때의 상태와 헤더로 압축 여부를 정하고, 모아 둔 앞부분을 보낸 뒤 버퍼를 돌려준다.
+         */
+        private void decide() throws IOException {
+            final HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (!shouldCompress(this)) {
+                startIdentity();
+                return;
+            }
+
+            final String etag = compressedEtag(getHeader(HttpHeaders.ETAG));
+            cacheKey = cacheKey(request, this, etag);
+            cached = cacheKey == null ? null : compressedBodies.get(cacheKey);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            addVary(response);
+            if (etag != null) {
+                response.setHeader(HttpHeaders.ETAG, etag);
+            }
+            contentLength = null;
+
+            if (cached != null) {
+                mode = Mode.CACHED;
+                identityBytes = head == null ? 0 : head.size();
+                response.setContentLength(cached.length);
+                response.getOutputStream().write(cached);
+                releaseHead();
+                return;
+            }
+
+            mode = Mode.GZIP;
+            compressedOutput = new CompressedOutputStream(response.getOutputStream(), cacheKey != null);
+            gzip = Gzip.stream(compressedOutput, levelSelector.currentLevel());
+            if (head != null) {
+                write(head.array(), 0, head.size());
+            }
+            releaseHead();
+        }
+
+        private void startIdentity() throws IOException {
+            mode = Mode.IDENTITY;
+            final HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (contentLength != null && !response.isCommitted()) {
+                response.setContentLengthLong(contentLength);
+            }
+            contentLength = null;
+            if (head != null) {
+                identityBytes += head.size();
+                head.writeTo(response.getOutputStream());
+            }
+            releaseHead();
+        }
+
+        /**
+         * 안쪽 ETag 필터는 본문을 다 본 뒤에 미리 보낸 ETag를 바로잡을 수 있다.
+         * 압축하는 중이면 모은 압축본을 바뀐 ETag로 보관하고, 보관해 둔 압축본을 이미 보냈으면 그 압축본은 낡은 것이므로 지운다.
+         * 보낸 본문과 맞도록 ETag는 바꾸지 않는다.
+         */
+        private void setEtag(final String etag) {
+            if (mode == Mode.GZIP) {
+                final String weakEtag = compressedEtag(etag);
+                cacheKey = cacheKey == null ? null : cacheKey(request, this, weakEtag);
+                super.setHeader(HttpHeaders.ETAG, weakEtag);
+            } else if (mode == Mode.CACHED) {
+                if (etag == null || !compressedEtag(etag).equals(getHeader(HttpHeaders.ETAG))) {
+                    compressedBodies.remove(cacheKey);
+                }
+            } else {
+                super.setHeader(HttpHeaders.ETAG, etag);
+            }
+        }
+
+        /**
+         * 안쪽 필터가 약한 If-None-Match로 304를 정했으면, 클라이언트가 갖고 있는 압축본의 약한 ETag로 돌려준다.
+         */
+        private void weakenNotModifiedEtag(final HttpServletResponse response) {
+            final String etag = response.getHeader(HttpHeaders.ETAG);
+            if (response.getStatus() != HttpServletResponse.SC_NOT_MODIFIED || response.isCommitted()
+                    || etag == null || etag.startsWith(WEAK_PREFIX)) {
+                return;
+            }
+            final String weakEtag = compressedEtag(etag);
+            for (final String ifNoneMatch : Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH))) {
+                if (ifNoneMatch.contains(weakEtag)) {
+                    response.setHeader(HttpHeaders.ETAG, weakEtag);
+                    addVary(response);
+                    return;
+                }
+            }
+        }
+
+        private void beforeReplacingBody() {
+            final boolean compressing = mode == Mode.GZIP || mode == Mode.CACHED;
+            abandonBody();
+            mode = Mode.IDENTITY;
+            if (compressing && !isCommitted()) {
+                super.reset();
+            }
+        }
+
+        private void abandonBody() {
+            release();
+            gzip = null;
+            compressedOutput = null;
+            cacheKey = null;
+            cached = null;
+            identityBytes = 0;
+            compressNanos = 0;
+        }
+
+        private void releaseHead() {
+            if (head != null) {
+                head.close();
+                head = null;
+            }
+        }
+
+        private final class CompressingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(final int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                CompressingResponseWrapper.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                flushBody();
+            }
+
+            @Override
+            public boolean isReady() {
+                return mode == Mode.BUFFER || mode == Mode.CACHED || getRawOutputStream().isReady();
+            }
+
+            /**
+             * 논블로킹 쓰기는 아직 정하지 않았으면 모아 둔 앞부분을 보내고 그대로 흘려보낸다.
+             * 압축하는 중에는 GZIPOutputStream이 블로킹 쓰기를 하므로 받지 않는다.
+             */
+            @Override
+            public void setWriteListener(final WriteListener writeListener) {
+                if (mode == Mode.GZIP || mode == Mode.CACHED) {
+                    throw new IllegalStateException("non-blocking write is not supported while compressing");
+                }
+                try {
+                    if (mode == Mode.BUFFER) {
+                        startIdentity();
+                    }
+                } catch (IOException e) {
+                    writeListener.onError(e);
+                    return;
+                }
+                getRawOutputStream().setWriteListener(writeListener);
+            }
+
+            private ServletOutputStream getRawOutputStream() {
+                try {
+                    return getResponse().getOutputStream();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 압축한 바이트를 응답에 쓰면서 센다. 보관할 응답이면 maxCachedBodySize까지 함께 모은다.
+     */
+    private final class CompressedOutputStream extends OutputStream {
+
+        private final OutputStream target;
+
+        private PooledByteArrayOutputStream capture;
+        private long count;
+
+        private CompressedOutputStream(final OutputStream target, final boolean capture) {
+            this.target = target;
+            this.capture = capture ? new PooledByteArrayOutputStream(bufferPool, Math.max(1024, minSize / 4)) : null;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+            if (capture != null) {
+                if (count > maxCachedBodySize) {
+                    release();
+                } else {
+                    capture.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        /**
+         * @return 모은 압축본의 복사본. 모으지 않았거나 너무 커서 그만뒀으면 null
+         */
+        byte[] captured() {
+            return capture == null ? null : capture.toByteArray();
+        }
+
+        void release() {
+            if (capture != null) {
+                capture.close();
+                capture = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * 작은 응답은 gzip 헤더와 트레일러(18바이트)에 압축 시간까지 들이면 오히려 손해다.
+ * 실제로 내려주는 텍스트를 이어 붙인 표본을 크기별로 잘라 압축해 보고,
+ * 줄어든 비율이 min-savings를 넘는 가장 작은 크기를 손익분기로 정한다.
+ */
+final class BreakEvenSize {
+
+    private static final int[] CANDIDATES = {64, 128, 256, 512, 1024, 2048, 4096, 8192};
+
+    private BreakEvenSize() {
+    }
+
+    static int measure(final List<byte[]> samples, final double minSavings, final int level) {
+        final var joined = new ByteArrayOutputStream();
+        for (final byte[] sample : samples) {
+            joined.writeBytes(sample);
+        }
+        final byte[] content = joined.toByteArray();
+        if (content.length == 0) {
+            return CANDIDATES[CANDIDATES.length - 1];
+        }
+
+        for (final int candidate : CANDIDATES) {
+            if (candidate > content.length) {
+                break;
+            }
+            final int compressed = Gzip.compress(content, 0, candidate, level).length;
+            if (compressed <= candidate * (1 - minSavings)) {
+                return candidate;
+            }
+        }
+        return Math.max(content.length, CANDIDATES[CANDIDATES.length - 1]);
+    }
+}
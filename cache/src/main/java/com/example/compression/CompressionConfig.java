@@ -0,0 +1,89 @@
+package com.example.compression;
+
+import com.example.support.BufferPool;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+
+/**
+ * 공유 캐시(order 1) 안쪽, ETag 필터 바깥쪽에 둔다.
+ * ETag는 압축하기 전 본문으로 계산하고, 공유 캐시는 Accept-Encoding마다 압축한 응답을 따로 저장한다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "cache.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionConfig.class);
+
+    private static final String[] SAMPLE_LOCATIONS = {
+            "classpath:/static/**/*.js", "classpath:/static/**/*.css", "classpath:/static/**/*.html"
+    };
+
+    @Bean
+    public CompressionMetrics compressionMetrics() {
+        return new CompressionMetrics();
+    }
+
+    @Bean
+    public CompressionLevelSelector compressionLevelSelector() {
+        return new CompressionLevelSelector();
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdaptiveCompressionFilter> adaptiveCompressionFilter(
+            final CompressionProperties properties,
+            final CompressionMetrics metrics,
+            final CompressionLevelSelector levelSelector,
+            final BufferPool bufferPool,
+            final ResourceLoader resourceLoader,
+            @Value("${handlebars.prefix:classpath:templates/}") final String templatePrefix,
+            @Value("${handlebars.suffix:.hbs}") final String templateSuffix) throws IOException {
+        final int minSize = properties.getMinSize() != null
+                ? (int) properties.getMinSize().toBytes()
+                : measureBreakEvenSize(properties, resourceLoader, templatePrefix + "**/*" + templateSuffix);
+
+        final FilterRegistrationBean<AdaptiveCompressionFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new AdaptiveCompressionFilter(minSize, Set.copyOf(properties.getMimeTypes()),
+                levelSelector, properties.getCacheMaxSize().toBytes(), metrics, bufferPool));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(2);
+
+        return registrationBean;
+    }
+
+    private static int measureBreakEvenSize(final CompressionProperties properties,
+                                            final ResourceLoader resourceLoader,
+                                            final String templateLocation) throws IOException {
+        final var resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        final List<byte[]> samples = new ArrayList<>();
+        final List<String> locations = new ArrayList<>(List.of(SAMPLE_LOCATIONS));
+        locations.add(templateLocation);
+        for (final String location : locations) {
+            for (final Resource resource : resourcePatternResolver.getResources(location)) {
+                try (final InputStream inputStream = resource.getInputStream()) {
+                    samples.add(inputStream.readAllBytes());
+                }
+            }
+        }
+
+        final int breakEven = BreakEvenSize.measure(samples, properties.getMinSavings(), 6);
+        log.info("compression break-even size : {} bytes ({} samples)", breakEven, samples.size());
+        return breakEven;
+    }
+}
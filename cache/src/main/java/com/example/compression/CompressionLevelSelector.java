@@ -0,0 +1,56 @@
+package com.example.compression;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * 프로세스 CPU 사용률을 보고 deflate 레벨을 고른다. CPU가 한가하면 더 작게, 바쁘면 더 빠르게 압축한다.
+ * 사용률은 1초에 한 번만 읽는다.
+ */
+public class CompressionLevelSelector {
+
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private volatile long sampledAt = System.nanoTime() - SAMPLE_INTERVAL_NANOS;
+    private volatile int level = Deflater.DEFAULT_COMPRESSION;
+    private volatile double cpuLoad = -1;
+
+    public int currentLevel() {
+        final long now = System.nanoTime();
+        if (now - sampledAt >= SAMPLE_INTERVAL_NANOS) {
+            sampledAt = now;
+            cpuLoad = readCpuLoad();
+            level = levelFor(cpuLoad);
+        }
+        return level;
+    }
+
+    public double getCpuLoad() {
+        return cpuLoad;
+    }
+
+    static int levelFor(final double cpuLoad) {
+        if (cpuLoad < 0 || cpuLoad < 0.5) {
+            return 6;
+        }
+        if (cpuLoad < 0.75) {
+            return 4;
+        }
+        if (cpuLoad < 0.9) {
+            return 2;
+        }
+        return Deflater.BEST_SPEED;
+    }
+
+    private double readCpuLoad() {
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+        }
+        final double loadAverage = os.getSystemLoadAverage();
+        return loadAverage < 0 ? -1 : loadAverage / os.getAvailableProcessors();
+    }
+}
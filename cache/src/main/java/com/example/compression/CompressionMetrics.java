@@ -0,0 +1,62 @@
+package com.example.compression;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 압축률은 압축한 응답만 놓고 (압축 후 바이트 / 원래 바이트)로 계산한다.
+ */
+public class CompressionMetrics {
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    void recordCompressed(final long originalSize, final long compressedSize, final long elapsedNanos) {
+        compressed.increment();
+        bytesIn.add(originalSize);
+        bytesOut.add(compressedSize);
+        nanos.add(elapsedNanos);
+    }
+
+    void recordCacheHit(final long originalSize, final long compressedSize) {
+        cacheHits.increment();
+        bytesIn.add(originalSize);
+        bytesOut.add(compressedSize);
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    public long getCompressedCount() {
+        return compressed.sum();
+    }
+
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public double getCompressionRatio() {
+        final long in = getBytesIn();
+        return in == 0 ? 1 : (double) getBytesOut() / in;
+    }
+
+    public long getCompressionTimeNanos() {
+        return nanos.sum();
+    }
+}
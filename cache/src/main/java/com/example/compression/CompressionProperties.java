@@ -0,0 +1,66 @@
+package com.example.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * min-size를 정하지 않으면 시작할 때 정적 파일과 템플릿으로 손익분기 크기를 잰다.
+ * min-savings는 압축해서 줄어야 하는 최소 비율이다.
+ */
+@ConfigurationProperties("cache.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    private DataSize minSize;
+
+    private double minSavings = 0.2;
+
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "text/html", "text/css", "text/plain", "text/xml", "text/javascript",
+            "application/javascript", "application/json", "application/xml", "image/svg+xml"));
+
+    private DataSize cacheMaxSize = DataSize.ofMegabytes(16);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(final DataSize minSize) {
+        this.minSize = minSize;
+    }
+
+    public double getMinSavings() {
+        return minSavings;
+    }
+
+    public void setMinSavings(final double minSavings) {
+        this.minSavings = minSavings;
+    }
+
+    public List<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    public void setMimeTypes(final List<String> mimeTypes) {
+        this.mimeTypes = mimeTypes;
+    }
+
+    public DataSize getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public void setCacheMaxSize(final DataSize cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+    }
+}
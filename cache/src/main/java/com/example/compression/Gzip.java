@@ -0,0 +1,77 @@
+package com.example.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+final class Gzip {
+
+    private Gzip() {
+    }
+
+    static byte[] compress(final byte[] content, final int offset, final int length, final int level) {
+        final var compressed = new ByteArrayOutputStream(Math.max(64, length / 4));
+        compress(content, offset, length, level, compressed);
+        return compressed.toByteArray();
+    }
+
+    /**
+     * out은 닫지 않는다.
+     */
+    static void compress(final byte[] content, final int offset, final int length, final int level,
+                         final OutputStream out) {
+        try (final var gzip = new LeveledGzipOutputStream(new NonClosingOutputStream(out), level)) {
+            gzip.write(content, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 본문을 흘려보내면서 압축한다. flush()는 그때까지 쓴 것을 모두 내보낸다(SYNC_FLUSH).
+     * 다 쓰면 finish()로 gzip 트레일러를 쓰고, 성공 여부와 상관없이 end()로 Deflater를 돌려줘야 한다. out은 닫지 않는다.
+     */
+    static StreamingGzipOutputStream stream(final OutputStream out, final int level) throws IOException {
+        return new StreamingGzipOutputStream(out, level);
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        private LeveledGzipOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    static final class StreamingGzipOutputStream extends GZIPOutputStream {
+
+        private StreamingGzipOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out, true);
+            def.setLevel(level);
+        }
+
+        void end() {
+            def.end();
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.etag;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 핸들러가 반환할 뷰 이름을 미리 알려준다.
+ * ConditionalViewInterceptor는 이 뷰로 검증자(ETag)를 만들어서 컨트롤러와 뷰 렌더링 전에 304를 판단한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalView {
+
+    String value();
+}
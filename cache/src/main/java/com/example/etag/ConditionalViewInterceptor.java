@@ -0,0 +1,42 @@
+package com.example.etag;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * ETag 필터는 렌더링한 본문으로 ETag를 만들기 때문에 304를 판단하기 전에 렌더링 비용을 이미 치른다.
+ * {@link ConditionalView}가 붙은 핸들러는 뷰의 검증자를 미리 만들 수 있으므로
+ * If-None-Match가 같으면 컨트롤러 호출과 뷰 렌더링 없이 preHandle에서 바로 304를 응답한다.
+ * If-None-Match 없이 If-Modified-Since만 보낸 요청은 뷰의 Last-Modified와 비교한다.
+ */
+public class ConditionalViewInterceptor implements HandlerInterceptor {
+
+    private final ViewValidator viewValidator;
+
+    public ConditionalViewInterceptor(final ViewValidator viewValidator) {
+        this.viewValidator = viewValidator;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                             final Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        final ConditionalView conditionalView = ((HandlerMethod) handler).getMethodAnnotation(ConditionalView.class);
+        if (conditionalView == null) {
+            return true;
+        }
+
+        final String etag = viewValidator.etag(conditionalView.value());
+        final long lastModified = viewValidator.lastModified(conditionalView.value());
+        final var webRequest = new ServletWebRequest(request, response);
+        if (lastModified < 0) {
+            return !webRequest.checkNotModified(etag);
+        }
+        return !webRequest.checkNotModified(etag, lastModified);
+    }
+}
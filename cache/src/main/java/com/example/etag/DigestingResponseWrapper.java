@@ -0,0 +1,394 @@
+package com.example.etag;
+
+import com.example.support.BufferPool;
+import com.example.support.PooledByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 본문을 쓰기 시작하는 순간 응답 상태와 헤더를 보고 본문을 어떻게 다룰지 정한다.
+ * <ul>
+ *     <li>핸들러가 직접 ETag를 정했으면 If-None-Match만 비교하고 본문은 그대로 흘려보낸다.</li>
+ *     <li>알고 있는 ETag가 있으면 본문보다 먼저 헤더로 보내고, 버퍼링하지 않고 흘려보내면서 해시를 계산한다.
+ *     본문이 응답 버퍼보다 커서 먼저 커밋되어도 ETag가 붙는다. 계산한 ETag가 다르면 커밋 전에는 헤더를 바로잡고,
+ *     이미 보냈으면 필터가 기억해 둔 ETag를 잊어서 다음 요청부터 다시 계산한다.</li>
+ *     <li>처음 보는 응답은 트레일러로 ETag를 보내거나, 트레일러를 받을 수 없는 클라이언트면 한 번만 버퍼링한다.</li>
+ * </ul>
+ * 버퍼는 BufferPool에서 빌리므로 다 쓴 뒤 release()를 불러야 한다.
+ * <br>
+ * 본문을 버퍼링하지 않는 모드에서는 isReady()와 setWriteListener()를 감싼 스트림에 넘기므로 논블로킹 쓰기도 된다.
+ */
+class DigestingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String TRAILER = "Trailer";
+    private static final String TE = "TE";
+    private static final String TRAILERS = "trailers";
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private enum Mode {
+        PASS_THROUGH, NOT_MODIFIED, DIGEST, TRAILER, BUFFER
+    }
+
+    private final HttpServletRequest request;
+    private final String knownEtag;
+    private final BufferPool bufferPool;
+
+    private Mode mode;
+    private Long contentLength;
+    private MessageDigest digest;
+    private String computedEtag;
+    private long digestNanos;
+    private boolean completing;
+    private PooledByteArrayOutputStream buffer;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    DigestingResponseWrapper(final HttpServletRequest request, final HttpServletResponse response,
+                             final String knownEtag, final BufferPool bufferPool) {
+        super(response);
+        this.request = request;
+        this.knownEtag = knownEtag;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called on this response.");
+        }
+        return obtainOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called on this response.");
+            }
+            writer = new PrintWriter(new OutputStreamWriter(obtainOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        begin();
+        if (mode != Mode.BUFFER && mode != Mode.NOT_MODIFIED) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+        if (mode == null) {
+            contentLength = len;
+            return;
+        }
+        if (mode == Mode.PASS_THROUGH || mode == Mode.DIGEST) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+            return;
+        }
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+            return;
+        }
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+            return;
+        }
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+            return;
+        }
+        super.addIntHeader(name, value);
+    }
+
+    /**
+     * 핸들러가 끝난 뒤 호출한다.
+     *
+     * @return 본문으로 계산한 ETag. 본문을 해시하지 않았으면 null
+     */
+    String complete() throws IOException {
+        completing = true;
+        if (writer != null) {
+            writer.flush();
+        }
+        begin();
+        switch (mode) {
+            case DIGEST:
+                if (!digestedEtag().equals(knownEtag) && !isCommitted()) {
+                    super.setHeader(HttpHeaders.ETAG, digestedEtag());
+                }
+                return digestedEtag();
+            case TRAILER:
+                return digestedEtag();
+            case BUFFER:
+                return writeBuffered();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 버퍼링했으면 빌린 버퍼를 돌려준다. 여러 번 불러도 된다.
+     */
+    void release() {
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    /**
+     * 본문을 해시하는 데 쓴 시간. 배열을 넘긴 쓰기 호출마다 잰 값을 더한 것이다.
+     * 바이트마다 시간을 재면 재는 비용이 해시보다 커지므로 한 바이트씩 쓴 것은 재지 않는다.
+     */
+    long getDigestNanos() {
+        return digestNanos;
+    }
+
+    private ServletOutputStream obtainOutputStream() throws IOException {
+        begin();
+        if (outputStream == null) {
+            outputStream = new DigestingOutputStream(getResponse().getOutputStream());
+        }
+        return outputStream;
+    }
+
+    private void begin() {
+        if (mode != null) {
+            return;
+        }
+        mode = decideMode();
+        if ((mode == Mode.PASS_THROUGH || mode == Mode.DIGEST) && contentLength != null) {
+            super.setContentLengthLong(contentLength);
+        }
+        if (mode == Mode.DIGEST || mode == Mode.TRAILER) {
+            digest = md5();
+        }
+        if (mode == Mode.DIGEST) {
+            super.setHeader(HttpHeaders.ETAG, knownEtag);
+        }
+        if (mode == Mode.BUFFER) {
+            buffer = new PooledByteArrayOutputStream(bufferPool,
+                    contentLength == null ? 1024 : (int) Math.min(contentLength, Integer.MAX_VALUE));
+        }
+    }
+
+    private Mode decideMode() {
+        if (!isEligibleForEtag()) {
+            return Mode.PASS_THROUGH;
+        }
+
+        final String handlerEtag = getHeader(HttpHeaders.ETAG);
+        if (handlerEtag != null) {
+            return checkNotModified(handlerEtag) ? Mode.NOT_MODIFIED : Mode.PASS_THROUGH;
+        }
+
+        if (knownEtag != null) {
+            return Mode.DIGEST;
+        }
+
+        if (acceptsTrailers()) {
+            try {
+                super.setTrailerFields(() -> Map.of(HttpHeaders.ETAG, digestedEtag()));
+                super.setHeader(TRAILER, HttpHeaders.ETAG);
+                return Mode.TRAILER;
+            } catch (IllegalStateException e) {
+                return bufferOrPassThrough();
+            }
+        }
+        return bufferOrPassThrough();
+    }
+
+    /**
+     * 비동기 요청은 핸들러가 끝난 뒤 complete()를 부르지 않으므로 버퍼링하면 본문을 내보내지 못한다.
+     */
+    private Mode bufferOrPassThrough() {
+        return request.isAsyncStarted() ? Mode.PASS_THROUGH : Mode.BUFFER;
+    }
+
+    private boolean isEligibleForEtag() {
+        final int status = getStatus();
+        if (status < 200 || status >= 300 || isCommitted()) {
+            return false;
+        }
+        final String cacheControl = getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl == null || !cacheControl.contains("no-store");
+    }
+
+    private boolean acceptsTrailers() {
+        final String te = request.getHeader(TE);
+        return te != null && te.contains(TRAILERS);
+    }
+
+    private boolean checkNotModified(final String etag) {
+        return new ServletWebRequest(request, (HttpServletResponse) getResponse()).checkNotModified(etag);
+    }
+
+    private String writeBuffered() throws IOException {
+        final long start = System.nanoTime();
+        final MessageDigest bufferDigest = md5();
+        bufferDigest.update(buffer.array(), 0, buffer.size());
+        final String etag = toEtag(bufferDigest.digest());
+        digestNanos += System.nanoTime() - start;
+        if (checkNotModified(etag)) {
+            return etag;
+        }
+        if (getHeader(HttpHeaders.ETAG) == null) {
+            super.setHeader(HttpHeaders.ETAG, etag);
+        }
+        super.setContentLength(buffer.size());
+        buffer.writeTo(getResponse().getOutputStream());
+        return etag;
+    }
+
+    private String digestedEtag() {
+        if (computedEtag == null) {
+            final long start = System.nanoTime();
+            computedEtag = toEtag(digest.digest());
+            digestNanos += System.nanoTime() - start;
+        }
+        return computedEtag;
+    }
+
+    /**
+     * ShallowEtagHeaderFilter와 같은 형식("0 + md5)으로 만든다.
+     */
+    private static String toEtag(final byte[] digest) {
+        final StringBuilder builder = new StringBuilder(37);
+        builder.append("\"0");
+        for (final byte b : digest) {
+            builder.append(HEX_CHARS[(b >> 4) & 0x0f]).append(HEX_CHARS[b & 0x0f]);
+        }
+        return builder.append('"').toString();
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class DigestingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+
+        private DigestingOutputStream(final ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            switch (mode) {
+                case NOT_MODIFIED:
+                    return;
+                case BUFFER:
+                    buffer.write(b);
+                    return;
+                case DIGEST:
+                case TRAILER:
+                    digest.update((byte) b);
+                    target.write(b);
+                    return;
+                default:
+                    target.write(b);
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            switch (mode) {
+                case NOT_MODIFIED:
+                    return;
+                case BUFFER:
+                    buffer.write(b, off, len);
+                    return;
+                case DIGEST:
+                case TRAILER:
+                    digestTimed(b, off, len);
+                    target.write(b, off, len);
+                    return;
+                default:
+                    target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (mode == Mode.BUFFER || mode == Mode.NOT_MODIFIED) {
+                return;
+            }
+            // complete()에서 남은 글자를 내보낼 때는 ETag 헤더를 바로잡을 수 있도록 커밋하지 않는다.
+            if (mode == Mode.DIGEST && completing) {
+                return;
+            }
+            target.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            if (mode == Mode.BUFFER || mode == Mode.NOT_MODIFIED) {
+                return true;
+            }
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            if (mode == Mode.BUFFER) {
+                throw new IllegalStateException("non-blocking write is not supported while buffering to compute an ETag");
+            }
+            target.setWriteListener(writeListener);
+        }
+
+        private void digestTimed(final byte[] b, final int off, final int len) {
+            final long start = System.nanoTime();
+            digest.update(b, off, len);
+            digestNanos += System.nanoTime() - start;
+        }
+    }
+}
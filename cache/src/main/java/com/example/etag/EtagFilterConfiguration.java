@@ -1,17 +1,24 @@
 package com.example.etag;
 
+import com.example.metrics.CacheMetrics;
+import com.example.support.BufferPool;
+import com.example.version.ResourceVersion;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class EtagFilterConfiguration {
 
     @Bean
-    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
-        final FilterRegistrationBean<ShallowEtagHeaderFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new ShallowEtagHeaderFilter());
+    public FilterRegistrationBean<StreamingEtagHeaderFilter> etagHeaderFilter(final ResourceVersion version,
+                                                                              final CacheMetrics cacheMetrics,
+                                                                              final BufferPool bufferPool) {
+        final FilterRegistrationBean<StreamingEtagHeaderFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new StreamingEtagHeaderFilter(version,
+                cacheMetrics.getEtagHashTime()::record, bufferPool));
         registrationBean.addUrlPatterns("/etag/*", "/resources/*");
 
         return registrationBean;
@@ -0,0 +1,18 @@
+package com.example.etag;
+
+/**
+ * 뷰에 넘기는 모델이 바뀌는 페이지라면 모델의 버전을 알려준다.
+ * 빈으로 등록하지 않으면 템플릿과 ResourceVersion만으로 검증자를 만든다.
+ */
+@FunctionalInterface
+public interface ModelVersionProvider {
+
+    String getModelVersion(String viewName);
+
+    /**
+     * 모델이 마지막으로 바뀐 시각(epoch millis). 모르면 -1을 돌려주고, 그 뷰에는 Last-Modified를 보내지 않는다.
+     */
+    default long getLastModified(final String viewName) {
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.etag;
+
+import com.example.support.AcceptEncoding;
+import com.example.support.BufferPool;
+import com.example.version.ResourceVersion;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * ShallowEtagHeaderFilter는 응답 본문 전체를 힙 버퍼에 복사한 뒤에야 첫 바이트를 보낸다.
+ * 이 필터는 URL, Accept-Encoding, ResourceVersion마다 한 번 계산한 ETag를 기억해 두고,
+ * 다음 요청부터는 그 ETag를 먼저 보낸 뒤 본문을 따로 버퍼링하지 않은 채 흘려보내면서 해시를 계산해 확인한다.
+ * <br>
+ * 이미 알고 있는 ETag와 If-None-Match가 같으면 컨트롤러를 거치지 않고 바로 304를 응답한다.
+ * 계산한 ETag가 기억해 둔 것과 다르면 잊어버리고 다음 요청에서 다시 계산한다.
+ * 처음 보는 URL은 클라이언트가 TE: trailers를 보냈으면 ETag를 트레일러로 보내고, 아니면 한 번만 버퍼링한다.
+ * <br>
+ * 본문을 해시한 응답마다 해시에 쓴 시간(나노초)을 hashTimeRecorder에 넘긴다.
+ */
+public class StreamingEtagHeaderFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingEtagHeaderFilter.class);
+
+    private static final int MAX_KNOWN_ETAGS = 10_000;
+    private static final int DEFAULT_MAX_BUFFER_SIZE = 1 << 20;
+    private static final long DEFAULT_MAX_RETAINED = 16L << 20;
+
+    private final ResourceVersion version;
+    private final LongConsumer hashTimeRecorder;
+    private final BufferPool bufferPool;
+    private final Map<String, KnownEtag> knownEtags = new ConcurrentHashMap<>();
+
+    public StreamingEtagHeaderFilter(final ResourceVersion version) {
+        this(version, nanos -> {
+        });
+    }
+
+    public StreamingEtagHeaderFilter(final ResourceVersion version, final LongConsumer hashTimeRecorder) {
+        this(version, hashTimeRecorder, new BufferPool(DEFAULT_MAX_BUFFER_SIZE, DEFAULT_MAX_RETAINED));
+    }
+
+    public StreamingEtagHeaderFilter(final ResourceVersion version, final LongConsumer hashTimeRecorder,
+                                     final BufferPool bufferPool) {
+        this.version = version;
+        this.hashTimeRecorder = hashTimeRecorder;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String key = knownEtagKey(request);
+        final KnownEtag knownEtag = knownEtags.get(key);
+        // 응답을 넘기면 If-None-Match가 다를 때도 기억해 둔 ETag를 헤더로 붙이므로 요청만 넘겨서 비교한다.
+        if (knownEtag != null && new ServletWebRequest(request).checkNotModified(knownEtag.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, knownEtag.getEtag());
+            knownEtag.replayHeaders(response);
+            return;
+        }
+
+        final var responseWrapper = new DigestingResponseWrapper(request, response,
+                knownEtag == null ? null : knownEtag.getEtag(), bufferPool);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (!request.isAsyncStarted()) {
+                remember(key, knownEtag, responseWrapper.complete(), responseWrapper);
+            }
+        } finally {
+            if (!request.isAsyncStarted()) {
+                responseWrapper.release();
+            }
+        }
+    }
+
+    private void remember(final String key, final KnownEtag knownEtag, final String etag,
+                          final DigestingResponseWrapper responseWrapper) {
+        if (etag == null) {
+            return;
+        }
+        hashTimeRecorder.accept(responseWrapper.getDigestNanos());
+        if (knownEtag != null && !knownEtag.getEtag().equals(etag)) {
+            log.debug("content changed without version change : {}", key);
+            knownEtags.remove(key);
+            return;
+        }
+        if (knownEtag == null && knownEtags.size() < MAX_KNOWN_ETAGS && isSharedAcrossRequests(responseWrapper)) {
+            knownEtags.put(key, KnownEtag.from(etag, responseWrapper));
+        }
+    }
+
+    /**
+     * 필터 안쪽에서 Accept-Encoding에 따라 본문을 다르게 줄 수 있으므로(미리 압축한 파일 등) 인코딩마다 따로 기억한다.
+     */
+    private String knownEtagKey(final HttpServletRequest request) {
+        final String queryString = request.getQueryString();
+        final String url = queryString == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + queryString;
+        return version.getVersion() + ":" + AcceptEncoding.normalize(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                + ":" + url;
+    }
+
+    /**
+     * Accept-Encoding 외의 요청 헤더에 따라 본문이 달라지는 응답은 URL과 Accept-Encoding만으로 ETag를 기억할 수 없다.
+     */
+    private static boolean isSharedAcrossRequests(final HttpServletResponse response) {
+        final String vary = response.getHeader(HttpHeaders.VARY);
+        return vary == null || HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(vary.trim());
+    }
+
+    private static final class KnownEtag {
+
+        private final String etag;
+        private final String cacheControl;
+        private final String vary;
+
+        private KnownEtag(final String etag, final String cacheControl, final String vary) {
+            this.etag = etag;
+            this.cacheControl = cacheControl;
+            this.vary = vary;
+        }
+
+        static KnownEtag from(final String etag, final HttpServletResponse response) {
+            return new KnownEtag(etag,
+                    String.join(", ", response.getHeaders(HttpHeaders.CACHE_CONTROL)),
+                    response.getHeader(HttpHeaders.VARY));
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 304 응답에도 200 응답에 있었을 Cache-Control과 Vary를 그대로 보내야 한다.
+         */
+        void replayHeaders(final HttpServletResponse response) {
+            if (!cacheControl.isEmpty()) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            if (vary != null) {
+                response.setHeader(HttpHeaders.VARY, vary);
+            }
+        }
+    }
+}
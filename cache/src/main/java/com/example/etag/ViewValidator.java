@@ -0,0 +1,114 @@
+package com.example.etag;
+
+import com.example.version.ResourceVersion;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 렌더링하지 않고 뷰의 검증자를 만든다.
+ * 뷰 이름, 템플릿 디렉터리 전체의 해시, 빌드, ResourceVersion, 모델 버전이 모두 같으면 렌더링 결과도 같다고 본다.
+ * <ul>
+ *     <li>뷰가 쓰는 partial과 layout을 따로 찾지 않고 템플릿 디렉터리 전체를 해시한다.
+ *     템플릿 하나만 바뀌어도 모든 뷰의 ETag가 바뀐다.</li>
+ *     <li>헬퍼, 컨트롤러, 메시지 번들처럼 템플릿 밖에서 렌더링 결과를 바꾸는 코드는
+ *     build-info.properties의 버전과 빌드 시각으로 구분한다. 빌드 정보가 없으면(IDE에서 실행) 시작 시각을 쓴다.</li>
+ * </ul>
+ * 바이트 단위로 같다고 보장하지는 않으므로 약한(weak) ETag를 쓴다.
+ * 날짜 검증자를 쓰는 클라이언트를 위해 템플릿, 빌드, 모델 중 가장 늦은 시각을 Last-Modified로 쓴다.
+ */
+@Component
+public class ViewValidator {
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final ResourceVersion version;
+    private final ObjectProvider<ModelVersionProvider> modelVersionProvider;
+    private final ObjectProvider<BuildProperties> buildProperties;
+    private final String prefix;
+    private final String suffix;
+
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    private String templatesDigest;
+    private long templatesLastModified;
+    private String build;
+
+    public ViewValidator(final ResourceLoader resourceLoader,
+                         final ResourceVersion version,
+                         final ObjectProvider<ModelVersionProvider> modelVersionProvider,
+                         final ObjectProvider<BuildProperties> buildProperties,
+                         @Value("${handlebars.prefix:classpath:templates/}") final String prefix,
+                         @Value("${handlebars.suffix:.hbs}") final String suffix) {
+        this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.version = version;
+        this.modelVersionProvider = modelVersionProvider;
+        this.buildProperties = buildProperties;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        final BuildProperties buildInfo = buildProperties.getIfAvailable();
+        this.build = (buildInfo == null || buildInfo.getTime() == null)
+                ? String.valueOf(Instant.now().toEpochMilli())
+                : buildInfo.getVersion() + "@" + buildInfo.getTime().toEpochMilli();
+
+        // 경로는 배포 위치마다 다르므로 템플릿마다 내용을 해시하고, 정렬한 해시들을 다시 해시한다.
+        final List<String> digests = new ArrayList<>();
+        long lastModified = 0;
+        for (final Resource template : resourcePatternResolver.getResources(prefix + "**/*" + suffix)) {
+            try (final InputStream inputStream = template.getInputStream()) {
+                digests.add(DigestUtils.md5DigestAsHex(inputStream));
+            }
+            lastModified = Math.max(lastModified, template.lastModified());
+        }
+        Collections.sort(digests);
+        this.templatesDigest = DigestUtils.md5DigestAsHex(String.join(",", digests).getBytes(StandardCharsets.UTF_8));
+        this.templatesLastModified = lastModified;
+    }
+
+    public String etag(final String viewName) {
+        final ModelVersionProvider provider = modelVersionProvider.getIfAvailable();
+        if (provider == null) {
+            return etags.computeIfAbsent(viewName, name -> generateEtag(name, ""));
+        }
+        return generateEtag(viewName, provider.getModelVersion(viewName));
+    }
+
+    /**
+     * @return epoch millis. 모델이 언제 바뀌었는지 알 수 없으면 -1
+     */
+    public long lastModified(final String viewName) {
+        final long lastModified = Math.max(templatesLastModified, version.getLastModified());
+        final ModelVersionProvider provider = modelVersionProvider.getIfAvailable();
+        if (provider == null) {
+            return lastModified;
+        }
+        final long modelLastModified = provider.getLastModified(viewName);
+        return modelLastModified < 0 ? -1 : Math.max(lastModified, modelLastModified);
+    }
+
+    private String generateEtag(final String viewName, final String modelVersion) {
+        final String identity = String.join(":",
+                viewName, templatesDigest, build, version.getVersion(), String.valueOf(modelVersion));
+        return "W/\"" + DigestUtils.md5DigestAsHex(identity.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
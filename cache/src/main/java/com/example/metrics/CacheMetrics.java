@@ -0,0 +1,169 @@
+package com.example.metrics;
+
+import com.example.compression.CompressionMetrics;
+import com.example.render.PageRefresher;
+import com.example.render.RenderedPageCache;
+import com.example.shared.SharedResponseCache;
+import com.example.support.BufferPool;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * 캐시가 실제로 얼마나 효과가 있는지 보는 지표를 한곳에 모은다.
+ * 기록은 모두 LongAdder로 하므로 요청 스레드끼리 락을 잡지 않는다.
+ * <ul>
+ *     <li>경로마다 요청 수, 조건부 요청 수, 304 응답 수</li>
+ *     <li>ETag 해시 계산 시간, 뷰 렌더링 시간</li>
+ *     <li>압축 전후 바이트, 각 캐시의 적중 수, 버퍼 풀 재사용 수. 원래 있던 지표를 읽기만 한다.</li>
+ * </ul>
+ * 경로가 끝없이 늘어나지 않도록 MAX_ROUTES개가 넘으면 나머지는 OTHER_ROUTE로 센다.
+ * 압축 필터와 공유 캐시는 설정으로 끌 수 있으므로 ObjectProvider로 받는다.
+ */
+@Component
+public class CacheMetrics {
+
+    static final int MAX_ROUTES = 200;
+    static final String OTHER_ROUTE = "other";
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final LatencyHistogram etagHashTime = new LatencyHistogram();
+    private final LatencyHistogram renderTime = new LatencyHistogram();
+
+    private final ObjectProvider<CompressionMetrics> compressionMetrics;
+    private final ObjectProvider<RenderedPageCache> renderedPageCache;
+    private final ObjectProvider<PageRefresher> pageRefresher;
+    private final ObjectProvider<SharedResponseCache> sharedResponseCache;
+    private final ObjectProvider<BufferPool> bufferPool;
+
+    public CacheMetrics(final ObjectProvider<CompressionMetrics> compressionMetrics,
+                        final ObjectProvider<RenderedPageCache> renderedPageCache,
+                        final ObjectProvider<PageRefresher> pageRefresher,
+                        final ObjectProvider<SharedResponseCache> sharedResponseCache,
+                        final ObjectProvider<BufferPool> bufferPool) {
+        this.compressionMetrics = compressionMetrics;
+        this.renderedPageCache = renderedPageCache;
+        this.pageRefresher = pageRefresher;
+        this.sharedResponseCache = sharedResponseCache;
+        this.bufferPool = bufferPool;
+    }
+
+    public void recordResponse(final String route, final int status, final boolean conditional) {
+        routeStats(route).record(status, conditional);
+    }
+
+    public LatencyHistogram getEtagHashTime() {
+        return etagHashTime;
+    }
+
+    public LatencyHistogram getRenderTime() {
+        return renderTime;
+    }
+
+    private RouteStats routeStats(final String route) {
+        final RouteStats stats = routes.get(route);
+        if (stats != null) {
+            return stats;
+        }
+        if (routes.size() >= MAX_ROUTES) {
+            return routes.computeIfAbsent(OTHER_ROUTE, key -> new RouteStats());
+        }
+        return routes.computeIfAbsent(route, key -> new RouteStats());
+    }
+
+    public Map<String, Object> snapshot() {
+        final Map<String, Object> routeSnapshots = new TreeMap<>();
+        routes.forEach((route, stats) -> routeSnapshots.put(route, stats.snapshot()));
+
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("routes", routeSnapshots);
+        snapshot.put("etagHash", etagHashTime.snapshot());
+        snapshot.put("render", renderTime.snapshot());
+        compressionMetrics.ifAvailable(metrics -> snapshot.put("compression", compression(metrics)));
+        renderedPageCache.ifAvailable(cache -> snapshot.put("renderedPages", renderedPages(cache)));
+        sharedResponseCache.ifAvailable(cache -> snapshot.put("sharedCache", sharedCache(cache)));
+        bufferPool.ifAvailable(pool -> snapshot.put("bufferPool", bufferPool(pool)));
+        return snapshot;
+    }
+
+    /**
+     * 주기적으로 남기는 로그 한 줄. 경로별 지표는 길어지므로 전체 합만 남긴다.
+     */
+    public String summary() {
+        long requests = 0;
+        long notModified = 0;
+        for (final RouteStats stats : routes.values()) {
+            requests += stats.getRequests();
+            notModified += stats.getNotModified();
+        }
+        final StringBuilder builder = new StringBuilder()
+                .append("requests=").append(requests)
+                .append(" notModified=").append(notModified)
+                .append(" etagHashP99=").append(TimeUnit.NANOSECONDS.toMicros(etagHashTime.percentile(0.99)))
+                .append("us renderP99=").append(TimeUnit.NANOSECONDS.toMicros(renderTime.percentile(0.99))).append("us");
+        final CompressionMetrics compression = compressionMetrics.getIfAvailable();
+        if (compression != null) {
+            builder.append(" compressionBytesIn=").append(compression.getBytesIn())
+                    .append(" compressionBytesOut=").append(compression.getBytesOut());
+        }
+        final RenderedPageCache pages = renderedPageCache.getIfAvailable();
+        if (pages != null) {
+            builder.append(" renderedPageHits=").append(pages.getHitCount())
+                    .append(" renderedPageMisses=").append(pages.getMissCount());
+        }
+        final SharedResponseCache shared = sharedResponseCache.getIfAvailable();
+        if (shared != null) {
+            builder.append(" sharedCacheHitRatio=").append(String.format("%.3f", shared.getHitRatio()));
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, Object> compression(final CompressionMetrics metrics) {
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("compressed", metrics.getCompressedCount());
+        snapshot.put("skipped", metrics.getSkippedCount());
+        snapshot.put("cacheHits", metrics.getCacheHitCount());
+        snapshot.put("bytesIn", metrics.getBytesIn());
+        snapshot.put("bytesOut", metrics.getBytesOut());
+        snapshot.put("ratio", metrics.getCompressionRatio());
+        snapshot.put("timeMillis", TimeUnit.NANOSECONDS.toMillis(metrics.getCompressionTimeNanos()));
+        return snapshot;
+    }
+
+    private Map<String, Object> renderedPages(final RenderedPageCache cache) {
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("hits", cache.getHitCount());
+        snapshot.put("misses", cache.getMissCount());
+        snapshot.put("evictions", cache.getEvictionCount());
+        snapshot.put("sizeInBytes", cache.getSizeInBytes());
+        pageRefresher.ifAvailable(refresher -> {
+            snapshot.put("refreshes", refresher.getRefreshCount());
+            snapshot.put("refreshFailures", refresher.getFailureCount());
+            snapshot.put("refreshRejections", refresher.getRejectionCount());
+        });
+        return snapshot;
+    }
+
+    private static Map<String, Object> bufferPool(final BufferPool pool) {
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("allocations", pool.getAllocationCount());
+        snapshot.put("reuses", pool.getReuseCount());
+        snapshot.put("outstanding", pool.getOutstandingCount());
+        return snapshot;
+    }
+
+    private static Map<String, Object> sharedCache(final SharedResponseCache cache) {
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("hits", cache.getHitCount());
+        snapshot.put("misses", cache.getMissCount());
+        snapshot.put("hitRatio", cache.getHitRatio());
+        snapshot.put("bytesSaved", cache.getBytesSaved());
+        snapshot.put("stores", cache.getStoreCount());
+        snapshot.put("sizeInBytes", cache.getSizeInBytes());
+        return snapshot;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.metrics;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(CacheMetricsProperties.class)
+public class CacheMetricsConfig implements WebMvcConfigurer {
+
+    private final CacheMetrics cacheMetrics;
+
+    public CacheMetricsConfig(final CacheMetrics cacheMetrics) {
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    /**
+     * 다른 필터가 먼저 응답을 끝내도 상태를 볼 수 있도록 가장 바깥에 둔다.
+     */
+    @Bean
+    public FilterRegistrationBean<RouteMetricsFilter> routeMetricsFilter() {
+        final FilterRegistrationBean<RouteMetricsFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new RouteMetricsFilter(cacheMetrics));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registrationBean;
+    }
+
+    @Bean
+    public CacheMetricsReporter cacheMetricsReporter(final CacheMetricsProperties properties) {
+        return new CacheMetricsReporter(cacheMetrics, properties.getLogInterval());
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderTimingInterceptor(cacheMetrics.getRenderTime()));
+    }
+}
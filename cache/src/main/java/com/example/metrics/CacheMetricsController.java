@@ -0,0 +1,23 @@
+package com.example.metrics;
+
+import java.util.Map;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * actuator 의존성 없이 같은 경로 규칙(/actuator/{id})으로 JSON을 내려준다.
+ */
+@RestController
+public class CacheMetricsController {
+
+    private final CacheMetrics metrics;
+
+    public CacheMetricsController(final CacheMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @GetMapping("/actuator/cache")
+    public Map<String, Object> cacheMetrics() {
+        return metrics.snapshot();
+    }
+}
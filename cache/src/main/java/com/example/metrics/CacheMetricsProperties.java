@@ -0,0 +1,21 @@
+package com.example.metrics;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("cache.metrics")
+public class CacheMetricsProperties {
+
+    /**
+     * 0이면 로그를 남기지 않는다.
+     */
+    private Duration logInterval = Duration.ofMinutes(1);
+
+    public Duration getLogInterval() {
+        return logInterval;
+    }
+
+    public void setLogInterval(final Duration logInterval) {
+        this.logInterval = logInterval;
+    }
+}
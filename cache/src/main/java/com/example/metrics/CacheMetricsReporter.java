@@ -0,0 +1,37 @@
+package com.example.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * log-interval마다 CacheMetrics.summary()를 한 줄로 남긴다. 누적값이므로 두 줄의 차이가 그 구간의 값이다.
+ * log-interval이 0이면 남기지 않는다.
+ */
+public class CacheMetricsReporter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheMetricsReporter.class);
+
+    private final ScheduledExecutorService executor;
+
+    public CacheMetricsReporter(final CacheMetrics metrics, final Duration interval) {
+        final var threadFactory = new CustomizableThreadFactory("cache-metrics-");
+        threadFactory.setDaemon(true);
+        this.executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        executor.scheduleAtFixedRate(() -> log.info("cache metrics : {}", metrics.summary()),
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 나노초를 2의 거듭제곱 구간으로 나눠 세는 히스토그램. 구간마다 LongAdder를 쓰므로 기록할 때 락이 없고,
+ * 여러 스레드가 같은 구간에 기록해도 셀이 나뉘어 있어 경합하지 않는다.
+ * 백분위는 구간의 상한으로 근사한다(최대 2배 오차).
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final long value = Math.max(nanos, 0);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        totalNanos.add(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @param quantile 0과 1 사이
+     * @return 나노초. 기록이 없으면 0
+     */
+    public long percentile(final double quantile) {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    public Map<String, Object> snapshot() {
+        final long samples = getCount();
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", samples);
+        snapshot.put("meanMicros", samples == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(getTotalNanos() / samples));
+        snapshot.put("p50Micros", TimeUnit.NANOSECONDS.toMicros(percentile(0.5)));
+        snapshot.put("p99Micros", TimeUnit.NANOSECONDS.toMicros(percentile(0.99)));
+        return snapshot;
+    }
+
+    /**
+     * i번 구간에는 [2^(i-1), 2^i) 나노초가 들어간다. 0번 구간은 0이다.
+     */
+    private static long upperBound(final int bucket) {
+        return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.metrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * postHandle과 afterCompletion 사이가 뷰 렌더링이다. 캐시에서 바로 쓴 페이지도 같이 재므로
+ * RenderedPageCache 적중률과 함께 보면 캐시가 렌더링 시간을 얼마나 줄였는지 알 수 있다.
+ */
+public class RenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String RENDER_START = RenderTimingInterceptor.class.getName() + ".renderStart";
+
+    private final LatencyHistogram renderTime;
+
+    public RenderTimingInterceptor(final LatencyHistogram renderTime) {
+        this.renderTime = renderTime;
+    }
+
+    @Override
+    public void postHandle(final HttpServletRequest request, final HttpServletResponse response,
+                           final Object handler, final ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null) {
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                                final Object handler, final Exception ex) {
+        final Object start = request.getAttribute(RENDER_START);
+        if (start != null) {
+            renderTime.record(System.nanoTime() - (Long) start);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.metrics;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 가장 바깥에서 응답 상태를 본다. ZeroCopyResourceFilter나 ETag 필터가 DispatcherServlet 전에 304를 응답해도 센다.
+ * 경로는 핸들러 매핑이 고른 패턴으로 묶고, 핸들러까지 가지 않은 요청은 정적 파일이면 /resources/**로,
+ * 아니면 요청 URI로 묶는다.
+ */
+public class RouteMetricsFilter extends OncePerRequestFilter {
+
+    private static final String STATIC_RESOURCES_ROUTE = PREFIX_STATIC_RESOURCES + "/**";
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final CacheMetrics metrics;
+
+    public RouteMetricsFilter(final CacheMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                metrics.recordResponse(route(request, response.getStatus()), response.getStatus(),
+                        isConditional(request));
+            }
+        }
+    }
+
+    private static String route(final HttpServletRequest request, final int status) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        final String uri = request.getRequestURI();
+        if (uri.startsWith(PREFIX_STATIC_RESOURCES + "/")) {
+            return STATIC_RESOURCES_ROUTE;
+        }
+        return status == 404 ? UNMATCHED_ROUTE : uri;
+    }
+
+    private static boolean isConditional(final HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * conditional은 If-None-Match나 If-Modified-Since를 보낸 요청 수다.
+ * 1년 동안 캐싱하는 정적 파일 경로에서 이 값이 크면 브라우저가 캐시를 쓰지 않고 다시 묻고 있다는 뜻이다.
+ */
+final class RouteStats {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder conditional = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    void record(final int status, final boolean conditionalRequest) {
+        requests.increment();
+        if (conditionalRequest) {
+            conditional.increment();
+        }
+        if (status == 304) {
+            notModified.increment();
+        }
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getConditional() {
+        return conditional.sum();
+    }
+
+    long getNotModified() {
+        return notModified.sum();
+    }
+
+    Map<String, Object> snapshot() {
+        final long total = getRequests();
+        final long notModifiedCount = getNotModified();
+        final Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("requests", total);
+        snapshot.put("conditional", getConditional());
+        snapshot.put("notModified", notModifiedCount);
+        snapshot.put("notModifiedRatio", total == 0 ? 0 : (double) notModifiedCount / total);
+        return snapshot;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.reactive;
+
+import com.example.cachecontrol.CachePolicy;
+import com.example.cachecontrol.CachePolicyRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * CacheControlInterceptor의 리액티브 버전. 핸들러를 부르기 전에 경로에 맞는 정책의 헤더를 붙인다.
+ * ETag 필터가 304로 끝내는 응답에도 Cache-Control이 있어야 하므로 ETag 필터보다 바깥에 둔다.
+ */
+public class CachePolicyWebFilter implements WebFilter, Ordered {
+
+    static final int ORDER = 0;
+
+    private final CachePolicyRegistry registry;
+
+    public CachePolicyWebFilter(final CachePolicyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        final CachePolicy policy = registry.find(path);
+        if (policy != null) {
+            policy.applyTo(exchange.getResponse().getHeaders());
+        }
+
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.reactive;
+
+import com.example.support.AcceptEncoding;
+import com.example.version.ResourceVersion;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.RequestPath;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * StreamingEtagHeaderFilter의 리액티브 버전. ETag 형식("0" + md5)과 304를 판단하는 순서가 같다.
+ * <ul>
+ *     <li>URL, Accept-Encoding, ResourceVersion마다 한 번 계산한 ETag와 If-None-Match가 같으면
+ *     핸들러를 거치지 않고 304를 응답한다.</li>
+ *     <li>핸들러가 직접 ETag를 정했으면 If-None-Match만 비교하고 본문은 그대로 흘려보낸다.</li>
+ *     <li>알고 있는 ETag가 있으면 헤더를 먼저 보내고, 흘려보내면서 해시를 계산해 맞는지 확인한다.</li>
+ *     <li>처음 보는 응답은 한 번만 본문을 모아서 해시한다. ServerHttpResponse로는 트레일러를 보낼 수 없다.</li>
+ * </ul>
+ * 본문은 Netty의 풀링된 버퍼에 모이므로 BufferPool을 쓰지 않는다.
+ */
+public class EtagWebFilter implements WebFilter, Ordered {
+
+    static final int ORDER = CachePolicyWebFilter.ORDER + 1;
+
+    private static final Logger log = LoggerFactory.getLogger(EtagWebFilter.class);
+
+    private static final int MAX_KNOWN_ETAGS = 10_000;
+    private static final int FILE_BUFFER_SIZE = 8192;
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private final ResourceVersion version;
+    private final LongConsumer hashTimeRecorder;
+    private final List<PathPattern> pathPatterns;
+    private final Map<String, KnownEtag> knownEtags = new ConcurrentHashMap<>();
+
+    public EtagWebFilter(final ResourceVersion version, final LongConsumer hashTimeRecorder,
+                         final String... pathPatterns) {
+        this.version = version;
+        this.hashTimeRecorder = hashTimeRecorder;
+        this.pathPatterns = Arrays.stream(pathPatterns)
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod()) || !matches(request.getPath())) {
+            return chain.filter(exchange);
+        }
+
+        final String key = knownEtagKey(request);
+        final KnownEtag knownEtag = knownEtags.get(key);
+        if (knownEtag != null && exchange.checkNotModified(knownEtag.getEtag())) {
+            knownEtag.replayHeaders(exchange.getResponse().getHeaders());
+            return exchange.getResponse().setComplete();
+        }
+
+        final var response = new DigestingResponse(exchange, key, knownEtag);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private boolean matches(final RequestPath path) {
+        final var pathWithinApplication = path.pathWithinApplication();
+        return pathPatterns.stream().anyMatch(pattern -> pattern.matches(pathWithinApplication));
+    }
+
+    /**
+     * 필터 안쪽에서 Accept-Encoding에 따라 본문을 다르게 줄 수 있으므로(미리 압축한 파일 등) 인코딩마다 따로 기억한다.
+     */
+    private String knownEtagKey(final ServerHttpRequest request) {
+        final String query = request.getURI().getRawQuery();
+        final String url = query == null
+                ? request.getURI().getRawPath()
+                : request.getURI().getRawPath() + "?" + query;
+        return version.getVersion() + ":"
+                + AcceptEncoding.normalize(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING)) + ":" + url;
+    }
+
+    /**
+     * Accept-Encoding 외의 요청 헤더에 따라 본문이 달라지는 응답은 URL과 Accept-Encoding만으로 ETag를 기억할 수 없다.
+     */
+    private static boolean isSharedAcrossRequests(final HttpHeaders headers) {
+        final String vary = headers.getFirst(HttpHeaders.VARY);
+        return vary == null || HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(vary.trim());
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 본문을 쓰기 시작하는 순간 상태와 헤더를 보고 본문을 어떻게 다룰지 정한다.
+     * 리소스 핸들러가 파일을 그대로 보내는(zero-copy) 경우에도 304는 똑같이 판단한다.
+     */
+    private final class DigestingResponse extends ServerHttpResponseDecorator implements ZeroCopyHttpOutputMessage {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final KnownEtag knownEtag;
+
+        private DigestingResponse(final ServerWebExchange exchange, final String key, final KnownEtag knownEtag) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.knownEtag = knownEtag;
+        }
+
+        @Override
+        public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+            if (!isEligibleForEtag()) {
+                return super.writeWith(body);
+            }
+
+            final String handlerEtag = getHeaders().getETag();
+            if (handlerEtag != null) {
+                return exchange.checkNotModified(handlerEtag) ? discard(body) : super.writeWith(body);
+            }
+
+            if (knownEtag != null) {
+                return writeDigesting(body);
+            }
+            return writeBuffered(body);
+        }
+
+        @Override
+        public Mono<Void> writeWith(final Path file, final long position, final long count) {
+            final boolean needsDigest = isEligibleForEtag() && getHeaders().getETag() == null;
+            if (needsDigest || !(getDelegate() instanceof ZeroCopyHttpOutputMessage)) {
+                return writeWith(read(file, position, count));
+            }
+            if (isEligibleForEtag() && exchange.checkNotModified(getHeaders().getETag())) {
+                getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                return setComplete();
+            }
+            return ((ZeroCopyHttpOutputMessage) getDelegate()).writeWith(file, position, count);
+        }
+
+        private Mono<Void> writeDigesting(final Publisher<? extends DataBuffer> body) {
+            getHeaders().setETag(knownEtag.getEtag());
+            final Digest digest = new Digest();
+            return super.writeWith(Flux.<DataBuffer>from(body).doOnNext(digest::update))
+                    .doOnSuccess(done -> remember(digest));
+        }
+
+        private Mono<Void> writeBuffered(final Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body).flatMap(buffer -> {
+                final Digest digest = new Digest();
+                digest.update(buffer);
+                final String etag = remember(digest);
+                if (exchange.checkNotModified(etag)) {
+                    DataBufferUtils.release(buffer);
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    return setComplete();
+                }
+                getHeaders().setETag(etag);
+                getHeaders().setContentLength(buffer.readableByteCount());
+                return super.writeWith(Mono.just(buffer));
+            });
+        }
+
+        private Mono<Void> discard(final Publisher<? extends DataBuffer> body) {
+            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return Flux.<DataBuffer>from(body)
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.defer(this::setComplete));
+        }
+
+        private String remember(final Digest digest) {
+            final String etag = digest.etag();
+            hashTimeRecorder.accept(digest.nanos);
+            if (knownEtag != null && !knownEtag.getEtag().equals(etag)) {
+                log.debug("content changed without version change : {}", key);
+                knownEtags.remove(key);
+                return etag;
+            }
+            if (knownEtag == null && knownEtags.size() < MAX_KNOWN_ETAGS && isSharedAcrossRequests(getHeaders())) {
+                knownEtags.put(key, KnownEtag.from(etag, getHeaders()));
+            }
+            return etag;
+        }
+
+        private boolean isEligibleForEtag() {
+            final HttpStatus status = getStatusCode();
+            if (status != null && !status.is2xxSuccessful()) {
+                return false;
+            }
+            final List<String> cacheControl = getHeaders().get(HttpHeaders.CACHE_CONTROL);
+            return cacheControl == null || cacheControl.stream().noneMatch(value -> value.contains("no-store"));
+        }
+
+        private Flux<DataBuffer> read(final Path file, final long position, final long count) {
+            return DataBufferUtils.takeUntilByteCount(DataBufferUtils.readAsynchronousFileChannel(
+                    () -> AsynchronousFileChannel.open(file, StandardOpenOption.READ),
+                    position, bufferFactory(), FILE_BUFFER_SIZE), count);
+        }
+    }
+
+    private static final class Digest {
+
+        private final MessageDigest md5 = md5();
+        private long nanos;
+
+        void update(final DataBuffer buffer) {
+            final long start = System.nanoTime();
+            md5.update(buffer.asByteBuffer());
+            nanos += System.nanoTime() - start;
+        }
+
+        /**
+         * ShallowEtagHeaderFilter와 같은 형식("0 + md5)으로 만든다.
+         */
+        String etag() {
+            final long start = System.nanoTime();
+            final byte[] digest = md5.digest();
+            final StringBuilder builder = new StringBuilder(37);
+            builder.append("\"0");
+            for (final byte b : digest) {
+                builder.append(HEX_CHARS[(b >> 4) & 0x0f]).append(HEX_CHARS[b & 0x0f]);
+            }
+            nanos += System.nanoTime() - start;
+            return builder.append('"').toString();
+        }
+    }
+
+    private static final class KnownEtag {
+
+        private final String etag;
+        private final String cacheControl;
+        private final String vary;
+
+        private KnownEtag(final String etag, final String cacheControl, final String vary) {
+            this.etag = etag;
+            this.cacheControl = cacheControl;
+            this.vary = vary;
+        }
+
+        static KnownEtag from(final String etag, final HttpHeaders headers) {
+            final List<String> cacheControl = headers.getOrEmpty(HttpHeaders.CACHE_CONTROL);
+            return new KnownEtag(etag, String.join(", ", cacheControl), headers.getFirst(HttpHeaders.VARY));
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 304 응답에도 200 응답에 있었을 Cache-Control과 Vary를 그대로 보내야 한다.
+         */
+        void replayHeaders(final HttpHeaders headers) {
+            if (!cacheControl.isEmpty()) {
+                headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            if (vary != null) {
+                headers.set(HttpHeaders.VARY, vary);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.reactive;
+
+import com.example.etag.ViewValidator;
+import com.example.version.PreloadLinks;
+import com.github.jknack.handlebars.Handlebars;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * GreetingController의 경로를 함수형 엔드포인트로 처리한다.
+ * 템플릿은 서블릿 모드와 같은 Handlebars 설정(정적 파일 URL 인라이닝, 버전 헬퍼)으로 렌더링한다.
+ */
+public class GreetingHandler {
+
+    private static final String INDEX = "index";
+    private static final String RESOURCE_VERSIONING = "resource-versioning";
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final Handlebars handlebars;
+    private final ViewValidator viewValidator;
+    private final PreloadLinks preloadLinks;
+
+    public GreetingHandler(final Handlebars handlebars, final ViewValidator viewValidator,
+                           final PreloadLinks preloadLinks) {
+        this.handlebars = handlebars;
+        this.viewValidator = viewValidator;
+        this.preloadLinks = preloadLinks;
+    }
+
+    public Mono<ServerResponse> index(final ServerRequest request) {
+        return render(ServerResponse.ok(), INDEX);
+    }
+
+    /**
+     * 필터를 쓰지 않고 응답에 직접 헤더값을 지정할 수도 있다.
+     */
+    public Mono<ServerResponse> cacheControl(final ServerRequest request) {
+        return render(ServerResponse.ok().cacheControl(CacheControl.noCache().cachePrivate()), INDEX);
+    }
+
+    /**
+     * ConditionalViewInterceptor와 같이 렌더링하기 전에 뷰의 검증자로 304를 판단한다.
+     */
+    public Mono<ServerResponse> etag(final ServerRequest request) {
+        final String etag = viewValidator.etag(INDEX);
+        final long lastModified = viewValidator.lastModified(INDEX);
+        final boolean notModified = lastModified < 0
+                ? request.exchange().checkNotModified(etag)
+                : request.exchange().checkNotModified(etag, Instant.ofEpochMilli(lastModified));
+        if (notModified) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        final ServerResponse.BodyBuilder builder = ServerResponse.ok().eTag(etag);
+        if (lastModified >= 0) {
+            builder.lastModified(Instant.ofEpochMilli(lastModified));
+        }
+        return render(builder, INDEX);
+    }
+
+    public Mono<ServerResponse> resourceVersioning(final ServerRequest request) {
+        return render(ServerResponse.ok(), RESOURCE_VERSIONING);
+    }
+
+    /**
+     * 템플릿을 먼저 컴파일해야 PreloadLinks에 preload 링크가 생기므로 렌더링한 뒤에 Link 헤더를 붙인다.
+     * 컴파일은 템플릿 파일을 읽는 블로킹 작업이므로 이벤트 루프가 아닌 boundedElastic에서 한다.
+     */
+    private Mono<ServerResponse> render(final ServerResponse.BodyBuilder builder, final String viewName) {
+        return Mono.fromCallable(() -> handlebars.compile(viewName).apply(Map.of()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(body -> {
+                    final String links = preloadLinks.forView(viewName);
+                    if (links != null) {
+                        builder.header(HttpHeaders.LINK, links);
+                    }
+                    return builder.contentType(TEXT_HTML_UTF8).bodyValue(body);
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.reactive;
+
+import com.example.version.AssetManifest;
+import com.example.version.VersionedResource;
+import java.util.List;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.resource.AbstractResourceResolver;
+import org.springframework.web.reactive.resource.ResourceResolverChain;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * AssetManifestResourceResolver의 리액티브 버전.
+ * '{hash}/js/index.js' 형태의 요청 경로에서 버전을 떼어내고, 매니페스트의 버전과 같을 때만 파일을 내려준다.
+ */
+public class ReactiveAssetManifestResourceResolver extends AbstractResourceResolver {
+
+    private final AssetManifest manifest;
+
+    public ReactiveAssetManifestResourceResolver(final AssetManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    @Override
+    protected Mono<Resource> resolveResourceInternal(@Nullable final ServerWebExchange exchange,
+                                                     final String requestPath,
+                                                     final List<? extends Resource> locations,
+                                                     final ResourceResolverChain chain) {
+        final int separator = requestPath.indexOf('/');
+        if (separator < 0) {
+            return Mono.empty();
+        }
+
+        final String candidateVersion = requestPath.substring(0, separator);
+        final String path = requestPath.substring(separator + 1);
+        if (!candidateVersion.equals(manifest.getVersion(path))) {
+            logger.trace("Version mismatch for \"" + requestPath + "\"");
+            return Mono.empty();
+        }
+
+        return chain.resolveResource(exchange, path, locations)
+                .map(resource -> new VersionedResource(resource, candidateVersion));
+    }
+
+    @Override
+    protected Mono<String> resolveUrlPathInternal(final String resourceUrlPath,
+                                                  final List<? extends Resource> locations,
+                                                  final ResourceResolverChain chain) {
+        final String version = manifest.getVersion(resourceUrlPath);
+        if (version == null) {
+            return Mono.empty();
+        }
+        return chain.resolveUrlPath(resourceUrlPath, locations)
+                .map(baseUrl -> version + "/" + baseUrl);
+    }
+}
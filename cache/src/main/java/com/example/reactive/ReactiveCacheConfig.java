@@ -0,0 +1,100 @@
+package com.example.reactive;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.cachecontrol.CachePolicyRegistry;
+import com.example.etag.ViewValidator;
+import com.example.metrics.CacheMetrics;
+import com.example.version.AssetManifest;
+import com.example.version.PreloadLinks;
+import com.example.version.ResourceVersion;
+import com.example.version.StaticUrlInliningTemplateCache;
+import com.example.version.VersionHandlebarsHelper;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.springmvc.SpringTemplateLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.resource.EncodedResourceResolver;
+
+/**
+ * reactive 프로필(spring.main.web-application-type=reactive)에서 GreetingController와 같은 경로를 Netty 위에서 처리한다.
+ * <ul>
+ *     <li>CacheControlInterceptor → CachePolicyWebFilter. 같은 CachePolicyRegistry를 쓴다.</li>
+ *     <li>EtagFilterConfiguration → EtagWebFilter. 같은 경로('/etag', '/resources')에 같은 형식의 ETag를 붙인다.</li>
+ *     <li>CacheBustingWebConfig → 같은 리졸버 체인(매니페스트 버전 확인, .gz 압축본 선택)을 쓰는 리액티브 리소스 핸들러.</li>
+ * </ul>
+ * 클래스패스에 톰캣도 있으므로 NettyReactiveWebServerFactory를 직접 등록해야 Netty로 뜬다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCacheConfig implements WebFluxConfigurer {
+
+    private final AssetManifest manifest;
+
+    public ReactiveCacheConfig(final AssetManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public GreetingHandler greetingHandler(final ResourceLoader resourceLoader,
+                                           final PreloadLinks preloadLinks,
+                                           final ViewValidator viewValidator,
+                                           @Value("${handlebars.prefix:classpath:templates/}") final String prefix,
+                                           @Value("${handlebars.suffix:.hbs}") final String suffix) {
+        final SpringTemplateLoader templateLoader = new SpringTemplateLoader(resourceLoader);
+        templateLoader.setPrefix(prefix);
+        templateLoader.setSuffix(suffix);
+        final Handlebars handlebars = new Handlebars(templateLoader)
+                .with(new StaticUrlInliningTemplateCache(manifest, preloadLinks))
+                .registerHelpers(new VersionHandlebarsHelper(manifest));
+
+        return new GreetingHandler(handlebars, viewValidator, preloadLinks);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> greetingRoutes(final GreetingHandler greetingHandler) {
+        return RouterFunctions.route()
+                .GET("/", greetingHandler::index)
+                .GET("/cache-control", greetingHandler::cacheControl)
+                .GET("/etag", greetingHandler::etag)
+                .GET("/resource-versioning", greetingHandler::resourceVersioning)
+                .build();
+    }
+
+    @Bean
+    public CachePolicyWebFilter cachePolicyWebFilter(final CachePolicyRegistry cachePolicyRegistry) {
+        return new CachePolicyWebFilter(cachePolicyRegistry);
+    }
+
+    @Bean
+    public EtagWebFilter etagWebFilter(final ResourceVersion version, final CacheMetrics cacheMetrics) {
+        return new EtagWebFilter(version, cacheMetrics.getEtagHashTime()::record,
+                "/etag/**", PREFIX_STATIC_RESOURCES + "/**");
+    }
+
+    /**
+     * CacheBustingWebConfig와 같은 체인이다. Cache-Control은 CachePolicyWebFilter가 붙인다.
+     */
+    @Override
+    public void addResourceHandlers(final ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/**")
+                .addResourceLocations(AssetManifest.STATIC_LOCATION)
+                .resourceChain(true)
+                .addResolver(new ReactiveAssetManifestResourceResolver(manifest))
+                .addResolver(new EncodedResourceResolver());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.render;
+
+import com.example.support.BufferPool;
+import com.example.support.PooledContentCachingResponseWrapper;
+import java.util.Locale;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.View;
+
+/**
+ * 캐시에 렌더링 결과가 있으면 템플릿을 거치지 않고 바이트를 그대로 쓴다.
+ * <ul>
+ *     <li>FRESH: 그대로 쓴다.</li>
+ *     <li>STALE: 그대로 쓰고 PageRefresher에게 다시 렌더링을 맡긴다. 요청은 렌더링을 기다리지 않는다.</li>
+ *     <li>EXPIRED 또는 없음: 원래 뷰로 렌더링한 결과를 캐시에 넣는다.
+ *     렌더링에 실패하면 stale-if-error 안에서는 이전 페이지를 대신 쓴다.</li>
+ * </ul>
+ */
+public class CachingView implements View {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingView.class);
+
+    private final String viewName;
+    private final Locale locale;
+    private final View delegate;
+    private final RenderedPageCache cache;
+    private final PageRefresher refresher;
+    private final BufferPool bufferPool;
+
+    public CachingView(final String viewName, final Locale locale, final View delegate,
+                       final RenderedPageCache cache, final PageRefresher refresher, final BufferPool bufferPool) {
+        this.viewName = viewName;
+        this.locale = locale;
+        this.delegate = delegate;
+        this.cache = cache;
+        this.refresher = refresher;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public void render(final Map<String, ?> model, final HttpServletRequest request,
+                       final HttpServletResponse response) throws Exception {
+        final long now = System.currentTimeMillis();
+        final RenderedPage cached = cache.get(viewName, locale);
+        if (cached != null) {
+            switch (cache.freshness(cached, now)) {
+                case FRESH:
+                    cached.writeTo(response);
+                    return;
+                case STALE:
+                    refresher.refresh(viewName, locale, cached.getContentType());
+                    cached.writeTo(response);
+                    return;
+                default:
+                    break;
+            }
+        }
+
+        final RenderedPage page;
+        try {
+            page = renderDelegate(model, request, response);
+        } catch (Exception e) {
+            if (cached != null && cache.isUsableOnError(cached, now)) {
+                log.warn("failed to render {}, serving stale page", viewName, e);
+                cached.writeTo(response);
+                return;
+            }
+            throw e;
+        }
+        cache.put(viewName, locale, page);
+        page.writeTo(response);
+    }
+
+    /**
+     * 실패해도 응답에는 아무것도 쓰지 않았으므로 이전 페이지를 대신 쓸 수 있다.
+     */
+    private RenderedPage renderDelegate(final Map<String, ?> model, final HttpServletRequest request,
+                                        final HttpServletResponse response) throws Exception {
+        final var responseWrapper = new PooledContentCachingResponseWrapper(response, bufferPool);
+        try {
+            delegate.render(model, request, responseWrapper);
+            return cache.newPage(responseWrapper.getContentAsByteArray(), responseWrapper.getContentType());
+        } finally {
+            responseWrapper.release();
+        }
+    }
+}
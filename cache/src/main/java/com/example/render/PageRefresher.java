@@ -0,0 +1,125 @@
+package com.example.render;
+
+import com.github.jknack.handlebars.Context;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * stale 페이지를 내려준 뒤 요청 스레드 밖에서 다시 렌더링한다.
+ * 요청이 없으므로 HandlebarsView 대신 뷰 리졸버가 쓰는 Handlebars로 템플릿을 직접 적용한다.
+ * 캐싱하는 뷰는 모델과 상관없이 결과가 같으므로 빈 모델로 렌더링해도 된다.
+ * <br>
+ * 스레드 수와 큐 길이를 제한하고, 같은 페이지를 동시에 두 번 렌더링하지 않는다.
+ * 큐가 가득 차면 이번 요청에서는 포기하고 다음 stale 요청에서 다시 시도한다.
+ */
+public class PageRefresher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageRefresher.class);
+
+    private final HandlebarsViewResolver handlebarsViewResolver;
+    private final RenderedPageCache cache;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public PageRefresher(final HandlebarsViewResolver handlebarsViewResolver, final RenderedPageCache cache,
+                         final RenderedPageProperties properties) {
+        this.handlebarsViewResolver = handlebarsViewResolver;
+        this.cache = cache;
+
+        final var threadFactory = new CustomizableThreadFactory("page-refresh-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getRefreshQueueCapacity()),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public void refresh(final String viewName, final Locale locale, final String contentType) {
+        final String key = viewName + "_" + locale;
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    cache.put(viewName, locale, render(viewName, locale, contentType));
+                    refreshes.increment();
+                } catch (IOException | RuntimeException e) {
+                    failures.increment();
+                    log.warn("failed to refresh rendered page, keep serving stale page : {}", viewName, e);
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            rejections.increment();
+        }
+    }
+
+    /**
+     * 요청 없이 지금 스레드에서 렌더링해 캐시에 넣는다. 시작할 때 캐시를 채우는 데 쓴다.
+     */
+    public void renderNow(final String viewName, final Locale locale, final String contentType) throws IOException {
+        cache.put(viewName, locale, render(viewName, locale, contentType));
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private RenderedPage render(final String viewName, final Locale locale, final String contentType)
+            throws IOException {
+        final Template template = handlebarsViewResolver.getHandlebars().compile(viewName);
+        final String body;
+        LocaleContextHolder.setLocale(locale);
+        try {
+            body = template.apply(Context.newContext(Map.of()));
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+        return cache.newPage(body.getBytes(charset(contentType)), contentType);
+    }
+
+    private static Charset charset(final String contentType) {
+        if (contentType == null) {
+            return StandardCharsets.UTF_8;
+        }
+        final Charset charset = MediaType.parseMediaType(contentType).getCharset();
+        return charset == null ? StandardCharsets.UTF_8 : charset;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.render;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 렌더링을 마치고 인코딩까지 끝난 본문. 어느 ResourceVersion으로 언제 렌더링했는지도 함께 둔다.
+ */
+public class RenderedPage {
+
+    private final byte[] body;
+    private final String contentType;
+    private final String version;
+    private final long renderedAt;
+
+    public RenderedPage(final byte[] body, final String contentType, final String version, final long renderedAt) {
+        this.body = body;
+        this.contentType = contentType;
+        this.version = version;
+        this.renderedAt = renderedAt;
+    }
+
+    /**
+     * Content-Length는 정하지 않는다. 압축 여부와 Content-Length는 동적 페이지와 똑같이 AdaptiveCompressionFilter와 톰캣이 정한다.
+     */
+    public void writeTo(final HttpServletResponse response) throws IOException {
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.getOutputStream().write(body);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public long getRenderedAt() {
+        return renderedAt;
+    }
+
+    public int size() {
+        return body.length;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.render;
+
+import com.example.support.WeightedLruCache;
+import com.example.version.ResourceVersion;
+import java.util.Locale;
+import java.util.Objects;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+/**
+ * 뷰 이름과 로케일을 키로 렌더링 결과를 보관한다.
+ * refresh-after가 지난 페이지도 바로 지우지 않고, 새로 렌더링한 페이지로 바꿀 때까지 stale 페이지로 내려준다.
+ * 다른 ResourceVersion으로 렌더링한 페이지는 같은 키로 새 페이지를 넣을 때 바뀐다.
+ * 설정(RenderedPageProperties)을 RenderedPageConfig가 등록하므로 서블릿 애플리케이션에서만 만든다.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RenderedPageCache {
+
+    public enum Freshness {
+        FRESH, STALE, EXPIRED
+    }
+
+    private final ResourceVersion version;
+    private final WeightedLruCache<PageKey, RenderedPage> pages;
+    private final long refreshAfterMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long staleIfErrorMillis;
+
+    public RenderedPageCache(final ResourceVersion version, final RenderedPageProperties properties) {
+        this.version = version;
+        this.pages = new WeightedLruCache<>(properties.getMaxSize().toBytes(), RenderedPage::size);
+        this.refreshAfterMillis = properties.getRefreshAfter().toMillis();
+        this.staleWhileRevalidateMillis = properties.getStaleWhileRevalidate().toMillis();
+        this.staleIfErrorMillis = properties.getStaleIfError().toMillis();
+    }
+
+    public RenderedPage get(final String viewName, final Locale locale) {
+        return pages.get(new PageKey(viewName, locale));
+    }
+
+    public void put(final String viewName, final Locale locale, final RenderedPage page) {
+        pages.put(new PageKey(viewName, locale), page);
+    }
+
+    /**
+     * ResourceVersion이 바뀌었으면 이전 페이지가 가리키는 정적 파일 URL을 더는 찾을 수 없으므로 바로 EXPIRED다.
+     */
+    public Freshness freshness(final RenderedPage page, final long now) {
+        if (!isCurrentVersion(page)) {
+            return Freshness.EXPIRED;
+        }
+        final long staleSince = page.getRenderedAt() + refreshAfterMillis;
+        if (now < staleSince) {
+            return Freshness.FRESH;
+        }
+        return now < staleSince + staleWhileRevalidateMillis ? Freshness.STALE : Freshness.EXPIRED;
+    }
+
+    /**
+     * 다시 렌더링하다 실패했을 때 이 페이지를 대신 내려줘도 되는지 확인한다.
+     */
+    public boolean isUsableOnError(final RenderedPage page, final long now) {
+        return isCurrentVersion(page) && now < page.getRenderedAt() + refreshAfterMillis + staleIfErrorMillis;
+    }
+
+    public RenderedPage newPage(final byte[] body, final String contentType) {
+        return new RenderedPage(body, contentType, version.getVersion(), System.currentTimeMillis());
+    }
+
+    public long getHitCount() {
+        return pages.hitCount();
+    }
+
+    public long getMissCount() {
+        return pages.missCount();
+    }
+
+    public long getEvictionCount() {
+        return pages.evictionCount();
+    }
+
+    public long getSizeInBytes() {
+        return pages.weight();
+    }
+
+    private boolean isCurrentVersion(final RenderedPage page) {
+        return version.getVersion().equals(page.getVersion());
+    }
+
+    private static final class PageKey {
+
+        private final String viewName;
+        private final Locale locale;
+
+        private PageKey(final String viewName, final Locale locale) {
+            this.viewName = viewName;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final PageKey pageKey = (PageKey) o;
+            return viewName.equals(pageKey.viewName) && Objects.equals(locale, pageKey.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(viewName, locale);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.render;
+
+import com.example.support.BufferPool;
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(RenderedPageProperties.class)
+public class RenderedPageConfig {
+
+    @Bean
+    public PageRefresher pageRefresher(final HandlebarsViewResolver handlebarsViewResolver,
+                                       final RenderedPageCache cache,
+                                       final RenderedPageProperties properties) {
+        return new PageRefresher(handlebarsViewResolver, cache, properties);
+    }
+
+    @Bean
+    public RenderedPageViewResolver renderedPageViewResolver(final HandlebarsViewResolver handlebarsViewResolver,
+                                                             final RenderedPageProperties properties,
+                                                             final RenderedPageCache cache,
+                                                             final PageRefresher pageRefresher,
+                                                             final BufferPool bufferPool) {
+        return new RenderedPageViewResolver(handlebarsViewResolver, Set.copyOf(properties.getViews()), cache,
+                pageRefresher, bufferPool);
+    }
+}
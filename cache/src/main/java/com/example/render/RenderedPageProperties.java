@@ -0,0 +1,89 @@
+package com.example.render;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * cache.rendered-pages.views에 적은 뷰는 모델과 상관없이 ResourceVersion마다 렌더링 결과가 같다고 보고 캐싱한다.
+ * <ul>
+ *     <li>refresh-after: 렌더링한 지 이만큼 지났거나 ResourceVersion이 바뀐 페이지는 다시 렌더링할 대상이다.</li>
+ *     <li>stale-while-revalidate: 대상이 된 뒤 이 시간 안이면 이전 페이지를 바로 내려주고 백그라운드에서 다시 렌더링한다.</li>
+ *     <li>stale-if-error: 다시 렌더링하다 실패하면 이 시간 안에서는 이전 페이지를 계속 내려준다.</li>
+ * </ul>
+ */
+@ConfigurationProperties("cache.rendered-pages")
+public class RenderedPageProperties {
+
+    private List<String> views = new ArrayList<>();
+
+    private DataSize maxSize = DataSize.ofMegabytes(10);
+
+    private Duration refreshAfter = Duration.ofMinutes(10);
+
+    private Duration staleWhileRevalidate = Duration.ofMinutes(1);
+
+    private Duration staleIfError = Duration.ofHours(1);
+
+    private int refreshThreads = 2;
+
+    private int refreshQueueCapacity = 100;
+
+    public List<String> getViews() {
+        return views;
+    }
+
+    public void setViews(final List<String> views) {
+        this.views = views;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    public void setRefreshAfter(final Duration refreshAfter) {
+        this.refreshAfter = refreshAfter;
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(final Duration staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public Duration getStaleIfError() {
+        return staleIfError;
+    }
+
+    public void setStaleIfError(final Duration staleIfError) {
+        this.staleIfError = staleIfError;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(final int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+
+    public int getRefreshQueueCapacity() {
+        return refreshQueueCapacity;
+    }
+
+    public void setRefreshQueueCapacity(final int refreshQueueCapacity) {
+        this.refreshQueueCapacity = refreshQueueCapacity;
+    }
+}
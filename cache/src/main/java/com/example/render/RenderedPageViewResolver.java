@@ -0,0 +1,49 @@
+package com.example.render;
+
+import com.example.support.BufferPool;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.view.AbstractCachingViewResolver;
+
+/**
+ * 캐싱하기로 한 뷰만 원래 뷰 리졸버(handlebars)의 뷰를 CachingView로 감싼다.
+ * 나머지 뷰는 null을 반환해서 다음 뷰 리졸버에게 넘긴다.
+ */
+public class RenderedPageViewResolver extends AbstractCachingViewResolver implements Ordered {
+
+    private final ViewResolver delegate;
+    private final Set<String> cacheableViews;
+    private final RenderedPageCache cache;
+    private final PageRefresher refresher;
+    private final BufferPool bufferPool;
+
+    public RenderedPageViewResolver(final ViewResolver delegate, final Set<String> cacheableViews,
+                                    final RenderedPageCache cache, final PageRefresher refresher,
+                                    final BufferPool bufferPool) {
+        this.delegate = delegate;
+        this.cacheableViews = cacheableViews;
+        this.cache = cache;
+        this.refresher = refresher;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    protected View loadView(final String viewName, final Locale locale) throws Exception {
+        if (!cacheableViews.contains(viewName)) {
+            return null;
+        }
+        final View view = delegate.resolveViewName(viewName, locale);
+        if (view == null) {
+            return null;
+        }
+        return new CachingView(viewName, locale, view, cache, refresher, bufferPool);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
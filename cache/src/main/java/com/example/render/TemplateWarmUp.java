@@ -0,0 +1,112 @@
+package com.example.render;
+
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+
+/**
+ * 배포 직후 첫 요청이 템플릿 로딩, 파싱, 컴파일 비용을 치르지 않도록 시작할 때 미리 해 둔다.
+ * ApplicationRunner는 ApplicationReadyEvent보다 먼저 실행되므로 준비 완료를 알리기 전에 끝난다.
+ * <ol>
+ *     <li>템플릿 디렉터리의 모든 템플릿을 병렬로 컴파일해서 뷰 리졸버의 뷰 캐시를 채운다.</li>
+ *     <li>렌더링 결과를 캐싱하는 뷰는 기본 로케일로 렌더링해서 RenderedPageCache도 채운다.</li>
+ * </ol>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TemplateWarmUp implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateWarmUp.class);
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final HandlebarsViewResolver handlebarsViewResolver;
+    private final RenderedPageViewResolver renderedPageViewResolver;
+    private final RenderedPageProperties properties;
+    private final PageRefresher pageRefresher;
+    private final String prefix;
+    private final String suffix;
+
+    public TemplateWarmUp(final ResourceLoader resourceLoader,
+                          final HandlebarsViewResolver handlebarsViewResolver,
+                          final RenderedPageViewResolver renderedPageViewResolver,
+                          final RenderedPageProperties properties,
+                          final PageRefresher pageRefresher,
+                          @Value("${handlebars.prefix:classpath:templates/}") final String prefix,
+                          @Value("${handlebars.suffix:.hbs}") final String suffix) {
+        this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.handlebarsViewResolver = handlebarsViewResolver;
+        this.renderedPageViewResolver = renderedPageViewResolver;
+        this.properties = properties;
+        this.pageRefresher = pageRefresher;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) throws Exception {
+        final long start = System.nanoTime();
+        final Locale locale = Locale.getDefault();
+        final List<String> viewNames = findViewNames();
+
+        viewNames.parallelStream().forEach(viewName -> resolve(viewName, locale));
+        final long compiled = System.nanoTime();
+
+        for (final String viewName : properties.getViews()) {
+            final View view = handlebarsViewResolver.resolveViewName(viewName, locale);
+            if (view != null) {
+                pageRefresher.renderNow(viewName, locale, view.getContentType());
+            }
+        }
+
+        log.info("template warm-up : compiled {} templates in {} ms, rendered {} pages in {} ms",
+                viewNames.size(), (compiled - start) / 1_000_000,
+                properties.getViews().size(), (System.nanoTime() - compiled) / 1_000_000);
+    }
+
+    private List<String> findViewNames() throws IOException {
+        final String root = resourcePatternResolver.getResource(prefix).getURL().toString();
+        final Resource[] templates = resourcePatternResolver.getResources(prefix + "**/*" + suffix);
+        return Arrays.stream(templates)
+                .map(template -> viewName(root, template))
+                .filter(viewName -> !viewName.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private String viewName(final String root, final Resource template) {
+        try {
+            final String url = template.getURL().toString();
+            if (!url.startsWith(root)) {
+                return "";
+            }
+            final String path = url.substring(root.length());
+            return path.substring(0, path.length() - suffix.length());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void resolve(final String viewName, final Locale locale) {
+        try {
+            handlebarsViewResolver.resolveViewName(viewName, locale);
+            renderedPageViewResolver.resolveViewName(viewName, locale);
+        } catch (Exception e) {
+            log.warn("failed to warm up template : {}", viewName, e);
+        }
+    }
+}
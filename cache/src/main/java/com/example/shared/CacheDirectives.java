@@ -0,0 +1,68 @@
+package com.example.shared;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache-Control 헤더 값을 지시자 이름과 값으로 나눈다.
+ */
+final class CacheDirectives {
+
+    private static final CacheDirectives EMPTY = new CacheDirectives(Map.of());
+
+    private final Map<String, String> directives;
+
+    private CacheDirectives(final Map<String, String> directives) {
+        this.directives = directives;
+    }
+
+    static CacheDirectives parse(final Iterable<String> headerValues) {
+        if (headerValues == null) {
+            return EMPTY;
+        }
+        final Map<String, String> directives = new HashMap<>();
+        for (final String headerValue : headerValues) {
+            for (final String directive : headerValue.split(",")) {
+                final String trimmed = directive.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                final int equals = trimmed.indexOf('=');
+                if (equals < 0) {
+                    directives.put(trimmed.toLowerCase(Locale.ROOT), "");
+                } else {
+                    directives.put(trimmed.substring(0, equals).trim().toLowerCase(Locale.ROOT),
+                            unquote(trimmed.substring(equals + 1).trim()));
+                }
+            }
+        }
+        return new CacheDirectives(directives);
+    }
+
+    boolean has(final String name) {
+        return directives.containsKey(name);
+    }
+
+    /**
+     * @return 초 단위 값. 없거나 숫자가 아니면 -1
+     */
+    long seconds(final String name) {
+        final String value = directives.get(name);
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String unquote(final String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.shared;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 공유 캐시에 저장한 응답. 본문은 힙 밖(direct buffer)에 두어 GC가 훑는 힙 크기를 늘리지 않는다.
+ */
+final class CachedResponse {
+
+    private final String contentType;
+    private final Map<String, List<String>> headers;
+    private final ByteBuffer body;
+    private final long storedAt;
+    private final long freshUntil;
+
+    /**
+     * body의 앞 length바이트를 힙 밖으로 복사하므로 body는 이후에 다시 써도 된다.
+     */
+    CachedResponse(final String contentType, final Map<String, List<String>> headers, final byte[] body,
+                   final int length, final long storedAt, final long freshnessLifetimeMillis) {
+        this.contentType = contentType;
+        this.headers = headers;
+        this.body = ByteBuffer.allocateDirect(length).put(body, 0, length).flip().asReadOnlyBuffer();
+        this.storedAt = storedAt;
+        this.freshUntil = storedAt + freshnessLifetimeMillis;
+    }
+
+    boolean isFresh(final long now) {
+        return now < freshUntil;
+    }
+
+    int size() {
+        return body.capacity();
+    }
+
+    /**
+     * @return 클라이언트 검증자와 맞아 304를 보냈으면 false, 본문을 보냈으면 true
+     */
+    boolean writeTo(final HttpServletRequest request, final HttpServletResponse response, final long now)
+            throws IOException {
+        headers.forEach((name, values) -> {
+            response.setHeader(name, values.get(0));
+            for (int i = 1; i < values.size(); i++) {
+                response.addHeader(name, values.get(i));
+            }
+        });
+        response.setHeader(HttpHeaders.AGE, String.valueOf((now - storedAt) / 1000));
+
+        final String etag = first(HttpHeaders.ETAG);
+        if (etag != null && new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return false;
+        }
+
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setContentLength(body.capacity());
+        Channels.newChannel(response.getOutputStream()).write(body.duplicate());
+        return true;
+    }
+
+    private String first(final String name) {
+        final List<String> values = headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+}
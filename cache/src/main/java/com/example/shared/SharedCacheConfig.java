@@ -0,0 +1,36 @@
+package com.example.shared;
+
+import com.example.support.BufferPool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ZeroCopyResourceFilter(order 0)가 내려주는 큰 정적 파일은 이미 힙을 거치지 않으므로 그 다음 순서에 둔다.
+ * ETag 필터보다 앞에 있어야 ETag까지 포함한 응답을 저장한다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "cache.shared", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SharedCacheProperties.class)
+public class SharedCacheConfig {
+
+    @Bean
+    public SharedResponseCache sharedResponseCache(final SharedCacheProperties properties) {
+        return new SharedResponseCache(properties.getMaxSize().toBytes());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SharedCacheFilter> sharedCacheFilter(final SharedResponseCache cache,
+                                                                       final BufferPool bufferPool) {
+        final FilterRegistrationBean<SharedCacheFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new SharedCacheFilter(cache, bufferPool));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(1);
+
+        return registrationBean;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.shared;
+
+import com.example.support.BufferPool;
+import com.example.support.PooledContentCachingResponseWrapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * 리버스 프록시처럼 동작하는 JVM 안의 공유 캐시.
+ * <ul>
+ *     <li>public이 붙은 200 응답만 저장한다. private, no-store, no-cache이거나 Set-Cookie가 있으면 저장하지 않는다.</li>
+ *     <li>신선도는 s-maxage가 있으면 s-maxage, 없으면 max-age로 정한다.</li>
+ *     <li>요청에 Cache-Control: no-cache(또는 max-age=0)가 있으면 저장한 응답을 쓰지 않고 다음 필터에서 새로 받는다.</li>
+ *     <li>Authorization이 있는 요청은 캐시를 아예 거치지 않는다.</li>
+ *     <li>캐시에서 응답할 때는 저장한 뒤 지난 시간을 Age로 알려준다.</li>
+ * </ul>
+ */
+public class SharedCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_TYPE.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            HttpHeaders.AGE.toLowerCase(Locale.ROOT));
+
+    private final SharedResponseCache cache;
+    private final BufferPool bufferPool;
+
+    public SharedCacheFilter(final SharedResponseCache cache, final BufferPool bufferPool) {
+        this.cache = cache;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (!isAsyncDispatch(request) && !isCacheable(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!isAsyncDispatch(request) && !requiresRevalidation(request)) {
+            final long now = System.currentTimeMillis();
+            final CachedResponse cached = cache.get(request);
+            if (cached != null && cached.isFresh(now)) {
+                if (cached.writeTo(request, response, now)) {
+                    cache.recordHit(cached.size());
+                }
+                return;
+            }
+        }
+
+        final PooledContentCachingResponseWrapper responseWrapper = isAsyncDispatch(request)
+                ? WebUtils.getNativeResponse(response, PooledContentCachingResponseWrapper.class)
+                : new PooledContentCachingResponseWrapper(response, bufferPool);
+        if (responseWrapper == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                try {
+                    store(request, responseWrapper);
+                    responseWrapper.copyBodyToResponse();
+                } finally {
+                    responseWrapper.release();
+                }
+            }
+        }
+    }
+
+    private static boolean isCacheable(final HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) && request.getHeader(HttpHeaders.AUTHORIZATION) == null;
+    }
+
+    private static boolean requiresRevalidation(final HttpServletRequest request) {
+        final var directives = CacheDirectives.parse(Collections.list(request.getHeaders(HttpHeaders.CACHE_CONTROL)));
+        return directives.has("no-cache") || directives.has("max-age") && directives.seconds("max-age") == 0;
+    }
+
+    private void store(final HttpServletRequest request, final PooledContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK
+                || response.getHeader(HttpHeaders.SET_COOKIE) != null
+                || response.getHeader(HttpHeaders.TRAILER) != null) {
+            return;
+        }
+        final CacheDirectives directives = CacheDirectives.parse(response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        if (!directives.has("public")
+                || directives.has("private") || directives.has("no-store") || directives.has("no-cache")) {
+            return;
+        }
+        final long lifetimeSeconds = directives.has("s-maxage")
+                ? directives.seconds("s-maxage")
+                : directives.seconds("max-age");
+        if (lifetimeSeconds <= 0) {
+            return;
+        }
+        final List<String> vary = vary(response);
+        if (vary.contains("*")) {
+            return;
+        }
+
+        cache.put(request, vary, new CachedResponse(response.getContentType(), headers(response),
+                response.getContentArray(), response.getContentSize(), System.currentTimeMillis(),
+                TimeUnit.SECONDS.toMillis(lifetimeSeconds)));
+    }
+
+    private static List<String> vary(final HttpServletResponse response) {
+        final List<String> vary = new ArrayList<>();
+        for (final String value : response.getHeaders(HttpHeaders.VARY)) {
+            Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .forEach(vary::add);
+        }
+        return List.copyOf(vary);
+    }
+
+    private static Map<String, List<String>> headers(final HttpServletResponse response) {
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (final String name : response.getHeaderNames()) {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+}
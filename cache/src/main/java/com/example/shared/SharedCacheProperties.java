@@ -0,0 +1,32 @@
+package com.example.shared;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * CDN이나 리버스 프록시 없이 서비스하는 경로를 위해 JVM 안에 공유 캐시를 둔다.
+ * 기본값은 꺼져 있다.
+ */
+@ConfigurationProperties("cache.shared")
+public class SharedCacheProperties {
+
+    private boolean enabled;
+
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
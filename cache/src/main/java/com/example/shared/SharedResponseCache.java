@@ -0,0 +1,99 @@
+package com.example.shared;
+
+import com.example.support.WeightedLruCache;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * URL과 응답의 Vary에 적힌 요청 헤더 값을 키로 응답을 보관한다.
+ * Vary 헤더 이름은 URL마다 마지막으로 저장한 응답에서 가져온다.
+ */
+public class SharedResponseCache {
+
+    private static final int MAX_VARY_ENTRIES = 10_000;
+
+    private final WeightedLruCache<String, CachedResponse> responses;
+    private final Map<String, List<String>> varyByUrl = new ConcurrentHashMap<>();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public SharedResponseCache(final long maxSizeInBytes) {
+        this.responses = new WeightedLruCache<>(maxSizeInBytes, CachedResponse::size);
+    }
+
+    CachedResponse get(final HttpServletRequest request) {
+        final String url = url(request);
+        final List<String> vary = varyByUrl.get(url);
+        if (vary == null) {
+            return responses.get(url);
+        }
+        return responses.get(key(url, vary, request));
+    }
+
+    void put(final HttpServletRequest request, final List<String> vary, final CachedResponse response) {
+        final String url = url(request);
+        if (vary.isEmpty()) {
+            varyByUrl.remove(url);
+        } else if (varyByUrl.size() < MAX_VARY_ENTRIES || varyByUrl.containsKey(url)) {
+            varyByUrl.put(url, vary);
+        } else {
+            return;
+        }
+        responses.put(key(url, vary, request), response);
+        stores.increment();
+    }
+
+    void recordHit(final int size) {
+        bytesSaved.add(size);
+    }
+
+    public long getHitCount() {
+        return responses.hitCount();
+    }
+
+    public long getMissCount() {
+        return responses.missCount();
+    }
+
+    public double getHitRatio() {
+        final long hits = getHitCount();
+        final long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 캐시에서 응답해서 컨트롤러나 리소스 핸들러가 만들지 않아도 된 본문 바이트 수
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public long getStoreCount() {
+        return stores.sum();
+    }
+
+    public long getSizeInBytes() {
+        return responses.weight();
+    }
+
+    private static String url(final HttpServletRequest request) {
+        final String queryString = request.getQueryString();
+        return queryString == null ? request.getRequestURI() : request.getRequestURI() + "?" + queryString;
+    }
+
+    private static String key(final String url, final List<String> vary, final HttpServletRequest request) {
+        if (vary.isEmpty()) {
+            return url;
+        }
+        final StringBuilder key = new StringBuilder(url);
+        for (final String name : vary) {
+            final String value = request.getHeader(name);
+            key.append('\n').append(name.toLowerCase(Locale.ROOT)).append('=').append(value == null ? "" : value);
+        }
+        return key.toString();
+    }
+}
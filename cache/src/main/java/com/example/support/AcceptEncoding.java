@@ -0,0 +1,69 @@
+package com.example.support;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Accept-Encoding 요청 헤더를 다룬다.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * q 값까지 보고 클라이언트가 contentCoding을 받는지 판단한다. gzip;q=0처럼 q가 0이면 거절한 것이다.
+     * 이름이 적혀 있지 않으면 *의 q 값을 따른다. 헤더가 없으면 어떤 인코딩도 받지 않는다고 본다.
+     */
+    public static boolean accepts(final String acceptEncoding, final String contentCoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double wildcard = null;
+        for (final String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            final String coding = parts[0].trim();
+            final double quality = quality(parts);
+            if (coding.equalsIgnoreCase(contentCoding)) {
+                return quality > 0;
+            }
+            if ("*".equals(coding)) {
+                wildcard = quality;
+            }
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    /**
+     * 대소문자, 공백, 순서만 다른 값이 같은 키가 되도록 정리한다. 헤더가 없으면 빈 문자열이다.
+     */
+    public static String normalize(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return "";
+        }
+        return Arrays.stream(acceptEncoding.toLowerCase(Locale.ROOT).split(","))
+                .map(coding -> coding.replaceAll("\\s+", ""))
+                .filter(coding -> !coding.isEmpty())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * q가 없으면 1이다. 읽을 수 없는 q는 0으로 보고 그 인코딩을 쓰지 않는다.
+     */
+    private static double quality(final String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.support;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 응답 본문을 버퍼링하는 필터가 요청마다 새 배열을 만들지 않도록 빌려주고 돌려받는 힙 버퍼 풀.
+ * 크기는 MIN_BUFFER_SIZE부터 maxBufferSize까지 2의 거듭제곱으로 나누고, 요청한 크기를 담을 수 있는 가장 작은 구간을 준다.
+ * 구간마다 maxRetainedBytes를 구간 수로 나눈 만큼만 보관하고 나머지는 버린다.
+ * maxBufferSize보다 큰 버퍼는 풀에 넣지 않고 그때그때 만든다.
+ * <br>
+ * 빌려 간 뒤 돌려주지 않은 버퍼 수를 getOutstandingCount()로 볼 수 있다. 테스트에서 0인지 확인해 누수를 찾는다.
+ */
+public class BufferPool {
+
+    static final int MIN_BUFFER_SIZE = 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+
+    private final int maxBufferSize;
+    private final Queue<byte[]>[] pools;
+    private final AtomicInteger[] pooledCounts;
+    private final int[] maxPooledCounts;
+
+    private final LongAdder outstanding = new LongAdder();
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+
+    public BufferPool(final int maxBufferSize, final long maxRetainedBytes) {
+        if (Integer.bitCount(maxBufferSize) != 1 || maxBufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("maxBufferSize must be a power of two >= " + MIN_BUFFER_SIZE);
+        }
+        this.maxBufferSize = maxBufferSize;
+        final int classes = Integer.numberOfTrailingZeros(maxBufferSize) - MIN_SHIFT + 1;
+        @SuppressWarnings("unchecked")
+        final Queue<byte[]>[] queues = (Queue<byte[]>[]) new Queue<?>[classes];
+        this.pools = queues;
+        this.pooledCounts = new AtomicInteger[classes];
+        this.maxPooledCounts = new int[classes];
+        for (int i = 0; i < classes; i++) {
+            pools[i] = new ConcurrentLinkedQueue<>();
+            pooledCounts[i] = new AtomicInteger();
+            maxPooledCounts[i] = (int) Math.min(Integer.MAX_VALUE, maxRetainedBytes / classes / sizeOf(i));
+        }
+    }
+
+    /**
+     * @return 길이가 minCapacity 이상인 배열. 내용은 비어 있지 않을 수 있다.
+     */
+    public byte[] acquire(final int minCapacity) {
+        outstanding.increment();
+        if (minCapacity > maxBufferSize) {
+            allocations.increment();
+            return new byte[minCapacity];
+        }
+        final int sizeClass = sizeClass(minCapacity);
+        final byte[] pooled = pools[sizeClass].poll();
+        if (pooled != null) {
+            pooledCounts[sizeClass].decrementAndGet();
+            reuses.increment();
+            return pooled;
+        }
+        allocations.increment();
+        return new byte[sizeOf(sizeClass)];
+    }
+
+    /**
+     * acquire()로 받은 배열을 돌려준다. 돌려준 뒤에는 쓰면 안 된다.
+     */
+    public void release(final byte[] buffer) {
+        outstanding.decrement();
+        final int length = buffer.length;
+        if (length > maxBufferSize || length < MIN_BUFFER_SIZE || Integer.bitCount(length) != 1) {
+            return;
+        }
+        final int sizeClass = sizeClass(length);
+        if (pooledCounts[sizeClass].incrementAndGet() > maxPooledCounts[sizeClass]) {
+            pooledCounts[sizeClass].decrementAndGet();
+            return;
+        }
+        pools[sizeClass].offer(buffer);
+    }
+
+    public long getOutstandingCount() {
+        return outstanding.sum();
+    }
+
+    public long getAllocationCount() {
+        return allocations.sum();
+    }
+
+    public long getReuseCount() {
+        return reuses.sum();
+    }
+
+    private static int sizeClass(final int capacity) {
+        final int size = Math.max(capacity, MIN_BUFFER_SIZE);
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    private static int sizeOf(final int sizeClass) {
+        return MIN_BUFFER_SIZE << sizeClass;
+    }
+}
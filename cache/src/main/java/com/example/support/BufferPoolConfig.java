@@ -0,0 +1,18 @@
+package com.example.support;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ETag, 압축, 공유 캐시 필터와 CachingView가 같은 풀을 쓴다.
+ */
+@Configuration
+@EnableConfigurationProperties(BufferPoolProperties.class)
+public class BufferPoolConfig {
+
+    @Bean
+    public BufferPool bufferPool(final BufferPoolProperties properties) {
+        return new BufferPool((int) properties.getMaxBufferSize().toBytes(), properties.getMaxRetained().toBytes());
+    }
+}
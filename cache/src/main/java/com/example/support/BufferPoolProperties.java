@@ -0,0 +1,32 @@
+package com.example.support;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * max-buffer-size보다 큰 응답은 풀을 거치지 않는다. 2의 거듭제곱이어야 한다.
+ * max-retained는 풀이 쉬고 있는 버퍼를 들고 있을 수 있는 최대 바이트 수다.
+ */
+@ConfigurationProperties("cache.buffer-pool")
+public class BufferPoolProperties {
+
+    private DataSize maxBufferSize = DataSize.ofMegabytes(1);
+
+    private DataSize maxRetained = DataSize.ofMegabytes(16);
+
+    public DataSize getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    public void setMaxBufferSize(final DataSize maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    public DataSize getMaxRetained() {
+        return maxRetained;
+    }
+
+    public void setMaxRetained(final DataSize maxRetained) {
+        this.maxRetained = maxRetained;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * ByteArrayOutputStream과 같지만 배열을 BufferPool에서 빌린다. 모자라면 두 배 크기를 새로 빌려 옮기고 이전 배열은 돌려준다.
+ * 다 쓰면 반드시 close()로 배열을 돌려줘야 한다. close()를 여러 번 불러도 한 번만 돌려준다.
+ */
+public class PooledByteArrayOutputStream extends OutputStream {
+
+    private final BufferPool pool;
+
+    private byte[] buffer;
+    private int count;
+
+    public PooledByteArrayOutputStream(final BufferPool pool, final int initialCapacity) {
+        this.pool = pool;
+        this.buffer = pool.acquire(initialCapacity);
+    }
+
+    @Override
+    public void write(final int b) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 복사하지 않고 내부 배열을 그대로 준다. 앞의 size()바이트만 유효하고, close() 뒤에는 쓰면 안 된다.
+     */
+    public byte[] array() {
+        ensureOpen();
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        ensureOpen();
+        final byte[] copy = new byte[count];
+        System.arraycopy(buffer, 0, copy, 0, count);
+        return copy;
+    }
+
+    public void writeTo(final OutputStream out) throws IOException {
+        ensureOpen();
+        out.write(buffer, 0, count);
+    }
+
+    public void reset() {
+        count = 0;
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void ensureCapacity(final int minCapacity) {
+        ensureOpen();
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("buffer too large");
+        }
+        if (minCapacity <= buffer.length) {
+            return;
+        }
+        final byte[] grown = pool.acquire(Math.max(minCapacity, buffer.length << 1));
+        System.arraycopy(buffer, 0, grown, 0, count);
+        pool.release(buffer);
+        buffer = grown;
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("buffer has already been released");
+        }
+    }
+}
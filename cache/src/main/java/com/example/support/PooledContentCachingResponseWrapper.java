@@ -0,0 +1,254 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * ContentCachingResponseWrapper와 같은 방식으로 본문을 모아 두지만 버퍼를 BufferPool에서 빌린다.
+ * 본문을 처음 쓸 때 빌리고, 다 쓴 뒤 release()로 돌려준다. release()는 finally에서 불러야 한다.
+ * <br>
+ * getContentArray()는 복사하지 않고 내부 배열을 주므로 압축이나 해시처럼 바로 읽고 끝나는 곳에 쓴다.
+ * 응답보다 오래 들고 있어야 하면 getContentAsByteArray()로 복사한다.
+ */
+public class PooledContentCachingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final BufferPool pool;
+
+    private PooledByteArrayOutputStream content;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private Integer contentLength;
+
+    public PooledContentCachingResponseWrapper(final HttpServletResponse response, final BufferPool pool) {
+        super(response);
+        this.pool = pool;
+    }
+
+    @Override
+    public void sendError(final int sc) throws IOException {
+        copyBodyToResponse(false);
+        try {
+            super.sendError(sc);
+        } catch (IllegalStateException e) {
+            super.setStatus(sc);
+        }
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) throws IOException {
+        copyBodyToResponse(false);
+        try {
+            super.sendError(sc, msg);
+        } catch (IllegalStateException e) {
+            super.setStatus(sc);
+        }
+    }
+
+    @Override
+    public void sendRedirect(final String location) throws IOException {
+        copyBodyToResponse(false);
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ContentOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        // 본문을 모으는 동안에는 커밋하지 않는다.
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+        if (len > contentSize()) {
+            content(len);
+        }
+        this.contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+        if (len > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Content-Length exceeds buffer limit: " + len);
+        }
+        setContentLength((int) len);
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLength(Integer.parseInt(value));
+            return;
+        }
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLength(Integer.parseInt(value));
+            return;
+        }
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLength(value);
+            return;
+        }
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLength(value);
+            return;
+        }
+        super.addIntHeader(name, value);
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (content != null) {
+            content.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetBuffer();
+    }
+
+    public int getContentSize() {
+        flushWriter();
+        return contentSize();
+    }
+
+    /**
+     * @return 앞의 getContentSize()바이트만 유효한 내부 배열. release() 뒤에는 쓰면 안 된다.
+     */
+    public byte[] getContentArray() {
+        flushWriter();
+        return content == null ? new byte[0] : content.array();
+    }
+
+    public byte[] getContentAsByteArray() {
+        flushWriter();
+        return content == null ? new byte[0] : content.toByteArray();
+    }
+
+    /**
+     * 모은 본문을 원래 응답에 쓴다.
+     *
+     * @param complete true면 Content-Length를 모은 크기로 정하고 응답을 flush한다.
+     *                 false면 핸들러가 정한 Content-Length가 있을 때만 보낸다.
+     */
+    public void copyBodyToResponse(final boolean complete) throws IOException {
+        flushWriter();
+        if (contentSize() == 0) {
+            return;
+        }
+        final HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+        if ((complete || contentLength != null) && !rawResponse.isCommitted()) {
+            if (rawResponse.getHeader(HttpHeaders.TRANSFER_ENCODING) == null) {
+                rawResponse.setContentLength(complete ? contentSize() : contentLength);
+            }
+            contentLength = null;
+        }
+        content.writeTo(rawResponse.getOutputStream());
+        content.reset();
+        if (complete) {
+            super.flushBuffer();
+        }
+    }
+
+    public void copyBodyToResponse() throws IOException {
+        copyBodyToResponse(true);
+    }
+
+    /**
+     * 빌린 버퍼를 돌려준다. 여러 번 불러도 된다.
+     */
+    public void release() {
+        if (content != null) {
+            content.close();
+            content = null;
+        }
+    }
+
+    private int contentSize() {
+        return content == null ? 0 : content.size();
+    }
+
+    private PooledByteArrayOutputStream content(final int expectedSize) {
+        if (content == null) {
+            content = new PooledByteArrayOutputStream(pool, Math.max(expectedSize, INITIAL_CAPACITY));
+        }
+        return content;
+    }
+
+    private void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    private class ContentOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(final int b) {
+            content(INITIAL_CAPACITY).write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            content(len).write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * 버퍼에 쓰는 것은 늘 바로 끝나므로 isReady()는 true다.
+         * 리스너는 감싼 스트림에 넘겨서 컨테이너가 onWritePossible()과 onError()를 부르게 한다.
+         */
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            try {
+                getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.version;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * classpath:/static/ 아래 정적 파일마다 내용의 해시로 버전을 붙인다.
+ * 빌드할 때 만든 번들과 압축본은 다른 classpath 루트에 있으므로 모든 루트의 static/을 훑는다.
+ * 같은 경로가 여러 루트에 있으면 classpath 순서로 먼저 나온 파일을 쓴다.
+ * 배포할 때마다 모든 파일의 캐시가 무효화되지 않고, 내용이 바뀐 파일의 URL만 바뀐다.
+ * 해시는 시작할 때 병렬로 한 번만 계산하고, 이후에는 불변 맵에서 O(1)로 조회한다.
+ */
+@Component
+public class AssetManifest {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetManifest.class);
+
+    public static final String STATIC_LOCATION = "classpath:/static/";
+
+    private static final String STATIC_ROOTS = "classpath*:/static/";
+    private static final String ALL_STATIC_RESOURCES = STATIC_ROOTS + "**/*";
+    private static final String PRECOMPRESSED_SUFFIX = ".gz";
+
+    private final ResourcePatternResolver resourcePatternResolver;
+
+    private Map<String, String> versions = Map.of();
+    private Map<String, String> urls = Map.of();
+    private String digest;
+
+    public AssetManifest(final ResourceLoader resourceLoader) {
+        this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        final long start = System.nanoTime();
+        final List<String> roots = new ArrayList<>();
+        for (final Resource root : resourcePatternResolver.getResources(STATIC_ROOTS)) {
+            roots.add(root.getURL().toString());
+        }
+        final Resource[] resources = resourcePatternResolver.getResources(ALL_STATIC_RESOURCES);
+
+        this.versions = Arrays.stream(resources)
+                .parallel()
+                .filter(Resource::isReadable)
+                .map(resource -> Map.entry(relativePath(roots, resource), resource))
+                .filter(entry -> isAsset(entry.getKey()))
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> digest(entry.getValue()),
+                        (first, second) -> first));
+        this.urls = versions.entrySet()
+                .stream()
+                .collect(Collectors.toUnmodifiableMap(entry -> "/" + entry.getKey(),
+                        entry -> toUrl(entry.getValue(), entry.getKey())));
+        this.digest = DigestUtils.md5DigestAsHex(new TreeMap<>(versions).toString().getBytes());
+
+        log.info("asset manifest : {} files in {} ms", versions.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param path classpath:/static/ 기준 경로. 앞의 '/'는 있어도 되고 없어도 된다.
+     * @return 파일 내용의 해시. 매니페스트에 없는 경로면 null
+     */
+    public String getVersion(final String path) {
+        return versions.get(normalize(path));
+    }
+
+    /**
+     * 템플릿에서 쓰는 '/js/index.js' 형태의 경로를 '/resources/{hash}/js/index.js'로 바꾼다.
+     */
+    public String getUrl(final String path) {
+        final String url = urls.get(path);
+        if (url != null) {
+            return url;
+        }
+        final String version = getVersion(path);
+        if (version == null) {
+            log.warn("asset not found in manifest : {}", path);
+            return PREFIX_STATIC_RESOURCES + "/" + normalize(path);
+        }
+        return toUrl(version, normalize(path));
+    }
+
+    public Set<String> getPaths() {
+        return versions.keySet();
+    }
+
+    /**
+     * 모든 파일 버전을 합친 해시. 정적 파일이 하나라도 바뀌면 달라진다.
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    private static boolean isAsset(final String path) {
+        return !path.isEmpty() && !path.endsWith("/") && !path.endsWith(PRECOMPRESSED_SUFFIX);
+    }
+
+    private static String relativePath(final List<String> roots, final Resource resource) {
+        try {
+            final String url = resource.getURL().toString();
+            for (final String root : roots) {
+                if (url.startsWith(root)) {
+                    return url.substring(root.length());
+                }
+            }
+            return "";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String digest(final Resource resource) {
+        try (final InputStream inputStream = resource.getInputStream()) {
+            return DigestUtils.md5DigestAsHex(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String normalize(final String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static String toUrl(final String version, final String path) {
+        return PREFIX_STATIC_RESOURCES + "/" + version + "/" + path;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.version;
+
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * '{hash}/js/index.js' 형태의 요청 경로에서 버전을 떼어내고, 매니페스트의 버전과 같을 때만 파일을 내려준다.
+ * 내용이 바뀌기 전의 해시로 요청하면 찾지 못한다.
+ */
+public class AssetManifestResourceResolver extends AbstractResourceResolver {
+
+    private final AssetManifest manifest;
+
+    public AssetManifestResourceResolver(final AssetManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable final HttpServletRequest request, final String requestPath,
+                                               final List<? extends Resource> locations,
+                                               final ResourceResolverChain chain) {
+        final int separator = requestPath.indexOf('/');
+        if (separator < 0) {
+            return null;
+        }
+
+        final String candidateVersion = requestPath.substring(0, separator);
+        final String path = requestPath.substring(separator + 1);
+        if (!candidateVersion.equals(manifest.getVersion(path))) {
+            logger.trace("Version mismatch for \"" + requestPath + "\"");
+            return null;
+        }
+
+        final Resource resource = chain.resolveResource(request, path, locations);
+        if (resource == null) {
+            return null;
+        }
+        return new VersionedResource(resource, candidateVersion);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(final String resourceUrlPath, final List<? extends Resource> locations,
+                                            final ResourceResolverChain chain) {
+        final String version = manifest.getVersion(resourceUrlPath);
+        if (version == null) {
+            return null;
+        }
+        final String baseUrl = chain.resolveUrlPath(resourceUrlPath, locations);
+        if (baseUrl == null) {
+            return null;
+        }
+        return version + "/" + baseUrl;
+    }
+}
@@ -2,27 +2,39 @@ package com.example.version;
 
 import java.time.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CacheBustingWebConfig implements WebMvcConfigurer {
 
     public static final String PREFIX_STATIC_RESOURCES = "/resources";
+    public static final Duration STATIC_RESOURCES_MAX_AGE = Duration.ofDays(365);
 
-    private final ResourceVersion version;
+    private final AssetManifest manifest;
 
     @Autowired
-    public CacheBustingWebConfig(ResourceVersion version) {
-        this.version = version;
+    public CacheBustingWebConfig(AssetManifest manifest) {
+        this.manifest = manifest;
     }
 
+    /**
+     * 버전은 파일마다 다르므로 '/resources/{hash}/**' 전체를 하나의 핸들러가 받고,
+     * AssetManifestResourceResolver가 경로의 해시를 매니페스트와 비교한다.
+     * 빌드할 때 만들어 둔 .gz 압축본이 있으면 EncodedResourceResolver가 Accept-Encoding을 보고 압축본을 고른다.
+     * 압축본에는 Content-Encoding이 붙어 있으므로 톰캣은 다시 압축하지 않는다.
+     * Cache-Control은 CachePolicyRegistry의 '/resources/**' 정책을 CacheControlInterceptor가 붙인다.
+     */
     @Override
     public void addResourceHandlers(final ResourceHandlerRegistry registry) {
-        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/" + version.getVersion() + "/**")
-                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic())
-                .addResourceLocations("classpath:/static/");
+        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/**")
+                .addResourceLocations(AssetManifest.STATIC_LOCATION)
+                .resourceChain(true)
+                .addResolver(new AssetManifestResourceResolver(manifest))
+                .addResolver(new EncodedResourceResolver());
     }
 }
@@ -0,0 +1,100 @@
+package com.example.version;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * 뷰가 참조하는 정적 파일을 Link: rel=preload 헤더로 알려준다.
+ * <ul>
+ *     <li>postHandle: 컨트롤러가 고른 뷰로 렌더링 전에 헤더를 붙이고, 핸들러 메서드가 어떤 뷰를 쓰는지 기억해 둔다.</li>
+ *     <li>preHandle: 기억해 둔 뷰가 있으면 컨트롤러를 호출하기 전에 헤더를 붙이고,
+ *     컨테이너가 103 Early Hints를 지원하면 그 자리에서 보낸다.</li>
+ * </ul>
+ * Early Hints는 서블릿 API에 없어서 톰캣의 sendEarlyHints()가 있는지 리플렉션으로 확인한다.
+ * 지금 쓰는 톰캣 9.0에는 없으므로 헤더만 보낸다.
+ */
+public class PreloadLinkInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(PreloadLinkInterceptor.class);
+
+    private static final String SEND_EARLY_HINTS = "sendEarlyHints";
+    private static final String HTTP_1_0 = "HTTP/1.0";
+
+    private final PreloadLinks preloadLinks;
+    private final Map<Method, String> viewNames = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<Method>> earlyHints = new ConcurrentHashMap<>();
+
+    public PreloadLinkInterceptor(final PreloadLinks preloadLinks) {
+        this.preloadLinks = preloadLinks;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                             final Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        final String viewName = viewNames.get(((HandlerMethod) handler).getMethod());
+        final String links = viewName == null ? null : preloadLinks.forView(viewName);
+        if (links == null) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.LINK, links);
+        if (!HTTP_1_0.equals(request.getProtocol())) {
+            sendEarlyHints(response);
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(final HttpServletRequest request, final HttpServletResponse response,
+                           final Object handler, final ModelAndView modelAndView) {
+        if (!(handler instanceof HandlerMethod) || modelAndView == null || modelAndView.getViewName() == null) {
+            return;
+        }
+        final String viewName = modelAndView.getViewName();
+        viewNames.putIfAbsent(((HandlerMethod) handler).getMethod(), viewName);
+        if (response.isCommitted() || response.containsHeader(HttpHeaders.LINK)) {
+            return;
+        }
+        final String links = preloadLinks.forView(viewName);
+        if (links != null) {
+            response.setHeader(HttpHeaders.LINK, links);
+        }
+    }
+
+    private void sendEarlyHints(final ServletResponse response) {
+        ServletResponse current = response;
+        while (current instanceof ServletResponseWrapper) {
+            current = ((ServletResponseWrapper) current).getResponse();
+        }
+        final Optional<Method> method = earlyHints.computeIfAbsent(current.getClass(), type -> {
+            try {
+                return Optional.of(type.getMethod(SEND_EARLY_HINTS));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        });
+        if (method.isEmpty()) {
+            return;
+        }
+        try {
+            method.get().invoke(current);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            log.debug("failed to send early hints", e);
+        }
+    }
+}
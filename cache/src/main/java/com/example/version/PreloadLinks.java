@@ -0,0 +1,80 @@
+package com.example.version;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 템플릿을 컴파일할 때 StaticUrlInliningTemplateCache가 찾은 정적 파일로 Link: rel=preload 헤더 값을 만들어 둔다.
+ * 브라우저는 HTML을 파싱하기 전에 헤더만 보고 스크립트와 스타일시트를 받기 시작한다.
+ * as 속성을 정할 수 없는 파일(확장자를 모르는 파일)은 넣지 않는다.
+ * <br>
+ * 뷰 리졸버의 Handlebars가 StaticUrlInliningTemplateCache를 써야 채워진다(StaticUrlInliningConfig 참고).
+ * 캐싱하는 뷰는 TemplateWarmUp이 시작할 때 컴파일하므로 첫 요청부터 헤더가 붙는다.
+ */
+@Component
+public class PreloadLinks {
+
+    private static final Map<String, String> DESTINATIONS = Map.of(
+            "js", "script",
+            "mjs", "script",
+            "css", "style",
+            "woff2", "font",
+            "woff", "font",
+            "png", "image",
+            "jpg", "image",
+            "jpeg", "image",
+            "svg", "image",
+            "webp", "image");
+
+    private final AssetManifest manifest;
+    private final String prefix;
+    private final String suffix;
+    private final Map<String, String> linksByTemplate = new ConcurrentHashMap<>();
+
+    public PreloadLinks(final AssetManifest manifest,
+                        @Value("${handlebars.prefix:classpath:templates/}") final String prefix,
+                        @Value("${handlebars.suffix:.hbs}") final String suffix) {
+        this.manifest = manifest;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * @param templateFilename 템플릿 로더가 정한 파일 이름(prefix + 뷰 이름 + suffix)
+     * @param assetPaths 템플릿에서 staticUrls로 참조한 경로
+     */
+    void record(final String templateFilename, final List<String> assetPaths) {
+        final String links = assetPaths.stream()
+                .distinct()
+                .map(this::link)
+                .filter(link -> !link.isEmpty())
+                .collect(Collectors.joining(", "));
+        if (links.isEmpty()) {
+            linksByTemplate.remove(templateFilename);
+        } else {
+            linksByTemplate.put(templateFilename, links);
+        }
+    }
+
+    /**
+     * @return Link 헤더 값. 아직 컴파일하지 않았거나 참조하는 정적 파일이 없으면 null
+     */
+    public String forView(final String viewName) {
+        return linksByTemplate.get(prefix + viewName + suffix);
+    }
+
+    private String link(final String path) {
+        final int dot = path.lastIndexOf('.');
+        final String destination = dot < 0 ? null : DESTINATIONS.get(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+        if (destination == null) {
+            return "";
+        }
+        final String link = "<" + manifest.getUrl(path) + ">; rel=preload; as=" + destination;
+        return "font".equals(destination) ? link + "; crossorigin" : link;
+    }
+}
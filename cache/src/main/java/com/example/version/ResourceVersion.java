@@ -1,29 +1,46 @@
 package com.example.version;
 
+import java.time.Instant;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
+/**
+ * 정적 파일 전체의 버전. 시작 시각 대신 매니페스트의 해시를 쓰므로 정적 파일이 바뀌지 않은 배포에서는 그대로 유지된다.
+ * Last-Modified에 쓸 시각은 build-info.properties의 빌드 시각이고, 빌드 정보가 없으면(IDE에서 실행) 시작 시각이다.
+ */
 @Component
 public class ResourceVersion {
 
-    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyyMMddHHmmSS";
+    private final AssetManifest manifest;
+    private final ObjectProvider<BuildProperties> buildProperties;
 
     private String version;
+    private long lastModified;
+
+    public ResourceVersion(final AssetManifest manifest, final ObjectProvider<BuildProperties> buildProperties) {
+        this.manifest = manifest;
+        this.buildProperties = buildProperties;
+    }
 
     @PostConstruct
     public void init() {
-        this.version = now();
+        this.version = manifest.getDigest();
+        final BuildProperties build = buildProperties.getIfAvailable();
+        final Instant builtAt = (build == null || build.getTime() == null) ? Instant.now() : build.getTime();
+        this.lastModified = builtAt.getEpochSecond() * 1000;
     }
 
     public String getVersion() {
         return version;
     }
 
-    private static String now() {
-        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT);
-        return LocalDateTime.now().format(formatter);
+    /**
+     * @return HTTP 날짜 정밀도에 맞춰 초 단위로 자른 epoch millis
+     */
+    public long getLastModified() {
+        return lastModified;
     }
 }
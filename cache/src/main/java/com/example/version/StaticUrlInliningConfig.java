@@ -0,0 +1,19 @@
+package com.example.version;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StaticUrlInliningConfig {
+
+    /**
+     * handlebars-spring-boot-starter는 TemplateCache 빈이 없을 때만 GuavaTemplateCache를 만들고,
+     * HandlebarsViewResolver를 만든 뒤 @PostConstruct에서 TemplateCache 빈을 Handlebars에 끼운다.
+     * 뷰 리졸버의 Handlebars를 직접 바꾸면 그 뒤에 스타터가 덮어쓰므로 캐시를 빈으로 등록한다.
+     */
+    @Bean
+    public StaticUrlInliningTemplateCache staticUrlInliningTemplateCache(final AssetManifest manifest,
+                                                                         final PreloadLinks preloadLinks) {
+        return new StaticUrlInliningTemplateCache(manifest, preloadLinks);
+    }
+}
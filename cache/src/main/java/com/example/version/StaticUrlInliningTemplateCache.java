@@ -0,0 +1,140 @@
+package com.example.version;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Parser;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.TemplateCache;
+import com.github.jknack.handlebars.io.TemplateSource;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 템플릿을 파싱하기 전에 문자열 리터럴을 인자로 받는 {{staticUrls '...'}}, {{bundleUrl '...'}}를
+ * 매니페스트의 URL로 바꿔 둔다.
+ * 렌더링할 때는 헬퍼를 호출하지 않고 URL 문자열을 그대로 쓴다.
+ * 컴파일한 템플릿은 매니페스트 해시마다 보관하므로 정적 파일이 바뀌었을 때만 다시 컴파일한다.
+ * <br>
+ * 변수를 인자로 넘기는 {{staticUrls path}}, {{bundleUrl name}}은 바꾸지 않고 VersionHandlebarsHelper가 처리한다.
+ * 바꾼 경로는 템플릿마다 PreloadLinks에 알려준다.
+ */
+public class StaticUrlInliningTemplateCache implements TemplateCache {
+
+    private static final Pattern STATIC_URLS = Pattern.compile(
+            "\\{\\{(\\{?)\\s*(staticUrls|bundleUrl)\\s+(['\"])([^'\"]+)\\3\\s*}}(}?)");
+    private static final String BUNDLE_URL = "bundleUrl";
+
+    private final AssetManifest manifest;
+    private final PreloadLinks preloadLinks;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    private volatile String digest;
+
+    public StaticUrlInliningTemplateCache(final AssetManifest manifest, final PreloadLinks preloadLinks) {
+        this.manifest = manifest;
+        this.preloadLinks = preloadLinks;
+    }
+
+    @Override
+    public void clear() {
+        templates.clear();
+    }
+
+    @Override
+    public void evict(final TemplateSource source) {
+        templates.remove(source.filename());
+    }
+
+    /**
+     * 매니페스트가 바뀌면 URL이 바뀌므로 다시 컴파일하지 않는 것은 지원하지 않는다.
+     */
+    @Override
+    public TemplateCache setReload(final boolean reload) {
+        return this;
+    }
+
+    @Override
+    public Template get(final TemplateSource source, final Parser parser) throws IOException {
+        final String current = manifest.getDigest();
+        if (!current.equals(digest)) {
+            synchronized (this) {
+                if (!current.equals(digest)) {
+                    templates.clear();
+                    digest = current;
+                }
+            }
+        }
+
+        final Template template = templates.get(source.filename());
+        if (template != null) {
+            return template;
+        }
+        final Template compiled = parser.parse(new InlinedTemplateSource(source, this));
+        templates.put(source.filename(), compiled);
+        return compiled;
+    }
+
+    private String inline(final String filename, final String content) {
+        final Matcher matcher = STATIC_URLS.matcher(content);
+        if (!matcher.find()) {
+            preloadLinks.record(filename, List.of());
+            return content;
+        }
+        final List<String> assetPaths = new ArrayList<>();
+        final StringBuilder inlined = new StringBuilder(content.length());
+        do {
+            final boolean raw = !matcher.group(1).isEmpty() && !matcher.group(5).isEmpty();
+            final String path = BUNDLE_URL.equals(matcher.group(2))
+                    ? VersionHandlebarsHelper.bundlePath(matcher.group(4))
+                    : matcher.group(4);
+            assetPaths.add(path);
+            final String url = manifest.getUrl(path);
+            final String replacement = raw ? url : Handlebars.Utils.escapeExpression(url).toString();
+            matcher.appendReplacement(inlined, Matcher.quoteReplacement(replacement));
+        } while (matcher.find());
+        matcher.appendTail(inlined);
+        preloadLinks.record(filename, assetPaths);
+        return inlined.toString();
+    }
+
+    private static final class InlinedTemplateSource implements TemplateSource {
+
+        private final TemplateSource source;
+        private final StaticUrlInliningTemplateCache cache;
+
+        private InlinedTemplateSource(final TemplateSource source, final StaticUrlInliningTemplateCache cache) {
+            this.source = source;
+            this.cache = cache;
+        }
+
+        @Override
+        public String content(final Charset charset) throws IOException {
+            return cache.inline(source.filename(), source.content(charset));
+        }
+
+        @Override
+        public String filename() {
+            return source.filename();
+        }
+
+        @Override
+        public long lastModified() {
+            return source.lastModified();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof InlinedTemplateSource && source.equals(((InlinedTemplateSource) o).source);
+        }
+
+        @Override
+        public int hashCode() {
+            return source.hashCode();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * classpath 안의 정적 파일은 jar 안에 있어서 파일 채널로 열 수 없다.
+ * 시작할 때 한 번 로컬 디렉터리에 풀어 두고, 이후에는 sendfile이나 FileChannel.transferTo로 내려준다.
+ */
+public class UnpackedAssets implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UnpackedAssets.class);
+
+    private static final String PRECOMPRESSED_SUFFIX = ".gz";
+
+    private final Path directory;
+    private final Map<String, Path> files;
+
+    private UnpackedAssets(final Path directory, final Map<String, Path> files) {
+        this.directory = directory;
+        this.files = files;
+    }
+
+    public static UnpackedAssets unpack(final AssetManifest manifest, final ResourceLoader resourceLoader)
+            throws IOException {
+        final long start = System.nanoTime();
+        final Path directory = Files.createTempDirectory("static-assets");
+        final Map<String, Path> files = manifest.getPaths()
+                .parallelStream()
+                .flatMap(path -> Stream.of(path, path + PRECOMPRESSED_SUFFIX))
+                .map(path -> Map.entry(path, resourceLoader.getResource(AssetManifest.STATIC_LOCATION + path)))
+                .filter(entry -> entry.getValue().exists())
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        entry -> copy(entry.getValue(), directory.resolve(entry.getKey()))));
+
+        log.info("unpacked {} static files to {} in {} ms",
+                files.size(), directory, (System.nanoTime() - start) / 1_000_000);
+        return new UnpackedAssets(directory, files);
+    }
+
+    public Optional<Path> find(final String path) {
+        return Optional.ofNullable(files.get(path));
+    }
+
+    public Optional<Path> findPrecompressed(final String path) {
+        return find(path + PRECOMPRESSED_SUFFIX);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    private static Path copy(final Resource resource, final Path target) {
+        try (final InputStream inputStream = resource.getInputStream()) {
+            Files.createDirectories(target.getParent());
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+            // Last-Modified는 풀어 놓은 시각이 아니라 원래 파일의 시각이어야 한다.
+            final long lastModified = resource.lastModified();
+            if (lastModified > 0) {
+                Files.setLastModifiedTime(target, FileTime.fromMillis(lastModified));
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,25 +1,37 @@
 package com.example.version;
 
 import com.github.jknack.handlebars.Options;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import pl.allegro.tech.boot.autoconfigure.handlebars.HandlebarsHelper;
 
+/**
+ * 문자열 리터럴로 쓴 {{staticUrls '...'}}, {{bundleUrl '...'}}는 StaticUrlInliningTemplateCache가 컴파일할 때
+ * URL로 바꾸므로 이 헬퍼는 인자가 변수일 때만 호출된다.
+ */
 @HandlebarsHelper
 public class VersionHandlebarsHelper {
 
-    private static final Logger log = LoggerFactory.getLogger(VersionHandlebarsHelper.class);
+    private static final String BUNDLE_DIRECTORY = "/bundles/";
 
-    private final ResourceVersion version;
+    private final AssetManifest manifest;
 
     @Autowired
-    public VersionHandlebarsHelper(ResourceVersion version) {
-        this.version = version;
+    public VersionHandlebarsHelper(AssetManifest manifest) {
+        this.manifest = manifest;
     }
 
     public String staticUrls(String path, Options options) {
-        log.debug("static url : {}", path);
-        return String.format("/resources/%s%s", version.getVersion(), path);
+        return manifest.getUrl(path);
+    }
+
+    /**
+     * 빌드할 때 여러 파일을 하나로 묶어 둔 번들의 URL. 번들 이름은 build.gradle의 staticBundles에 적는다.
+     */
+    public String bundleUrl(String name, Options options) {
+        return manifest.getUrl(bundlePath(name));
+    }
+
+    static String bundlePath(String name) {
+        return BUNDLE_DIRECTORY + name;
     }
 }
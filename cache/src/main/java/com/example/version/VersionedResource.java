@@ -0,0 +1,127 @@
+package com.example.version;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.HttpResource;
+
+/**
+ * 매니페스트 버전으로 찾은 정적 파일. 버전(내용 해시)을 그대로 ETag로 내려준다.
+ * 압축본이면 인코딩마다 ETag를 다르게 하고, 압축 여부와 상관없이 Vary: Accept-Encoding을 붙인다.
+ * 서블릿과 리액티브 리소스 핸들러 모두 헤더를 읽을 수 있도록 두 HttpResource를 함께 구현한다.
+ */
+public class VersionedResource extends AbstractResource
+        implements HttpResource, org.springframework.web.reactive.resource.HttpResource {
+
+    private final Resource original;
+    private final String version;
+
+    public VersionedResource(final Resource original, final String version) {
+        this.original = original;
+        this.version = version;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean exists() {
+        return original.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return original.isReadable();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return original.isOpen();
+    }
+
+    @Override
+    public boolean isFile() {
+        return original.isFile();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        return original.getURL();
+    }
+
+    @Override
+    public URI getURI() throws IOException {
+        return original.getURI();
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        return original.getFile();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return original.getInputStream();
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+        return original.readableChannel();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return original.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return original.lastModified();
+    }
+
+    @Override
+    public Resource createRelative(final String relativePath) throws IOException {
+        return original.createRelative(relativePath);
+    }
+
+    @Override
+    public String getFilename() {
+        return original.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return original.getDescription();
+    }
+
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        final HttpHeaders headers;
+        if (original instanceof HttpResource) {
+            headers = ((HttpResource) original).getResponseHeaders();
+        } else if (original instanceof org.springframework.web.reactive.resource.HttpResource) {
+            headers = ((org.springframework.web.reactive.resource.HttpResource) original).getResponseHeaders();
+        } else {
+            headers = new HttpHeaders();
+        }
+        headers.setETag(etag(version, headers.getFirst(HttpHeaders.CONTENT_ENCODING)));
+        if (!headers.containsKey(HttpHeaders.VARY)) {
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return headers;
+    }
+
+    public static String etag(final String version, final String contentCoding) {
+        if (contentCoding == null) {
+            return "\"" + version + "\"";
+        }
+        return "\"" + version + "-" + contentCoding + "\"";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.version;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * cache.zero-copy.min-size(기본값은 톰캣 DefaultServlet의 sendfileSize와 같은 48KB)보다 큰 정적 파일만 sendfile로 보낸다.
+ * 작은 파일은 시스템 콜을 추가로 부르는 비용이 복사 비용보다 크다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "cache.zero-copy", name = "enabled", havingValue = "true")
+public class ZeroCopyResourceConfig {
+
+    @Bean
+    public UnpackedAssets unpackedAssets(final AssetManifest manifest, final ResourceLoader resourceLoader)
+            throws IOException {
+        return UnpackedAssets.unpack(manifest, resourceLoader);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ZeroCopyResourceFilter> zeroCopyResourceFilter(
+            final AssetManifest manifest,
+            final UnpackedAssets unpackedAssets,
+            @Value("${cache.zero-copy.min-size:48KB}") final DataSize minSize) {
+        final FilterRegistrationBean<ZeroCopyResourceFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new ZeroCopyResourceFilter(manifest, unpackedAssets, minSize.toBytes()));
+        registrationBean.addUrlPatterns(PREFIX_STATIC_RESOURCES + "/*");
+        registrationBean.setOrder(0);
+
+        return registrationBean;
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.version;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCES_MAX_AGE;
+
+import com.example.support.AcceptEncoding;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * 큰 정적 파일은 ResourceHttpRequestHandler가 스트림으로 복사하는 대신 로컬에 풀어 둔 파일을 바로 내려준다.
+ * 톰캣 커넥터가 sendfile을 지원하면 요청 속성에 파일 경로만 알려주고, 톰캣이 커널에서 소켓으로 직접 보낸다.
+ * 지원하지 않으면 FileChannel.transferTo로 보낸다. 어느 쪽이든 본문이 자바 힙을 거치지 않는다.
+ * <br>
+ * <br>
+ * Range 요청은 압축하지 않은 파일에서 잘라 206으로 보낸다. 구간 하나는 sendfile의 시작과 끝 위치로,
+ * 여러 구간은 multipart/byteranges로 FileChannel의 위치 지정 전송을 써서 보낸다. 위치를 지정하므로 채널 위치를 공유하지 않는다.
+ * If-Range가 내용 해시 ETag(또는 Last-Modified)와 다르면 Range를 무시하고 전체를 보낸다.
+ * <br>
+ * 기준보다 작은 파일이나 매니페스트와 버전이 다른 요청은 원래 리소스 핸들러가 처리한다.
+ */
+public class ZeroCopyResourceFilter extends OncePerRequestFilter {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String GZIP = "gzip";
+    private static final String BYTES = "bytes";
+
+    private final AssetManifest manifest;
+    private final UnpackedAssets assets;
+    private final long minSize;
+    private final String cacheControl = CacheControl.maxAge(STATIC_RESOURCES_MAX_AGE).cachePublic().getHeaderValue();
+
+    public ZeroCopyResourceFilter(final AssetManifest manifest, final UnpackedAssets assets, final long minSize) {
+        this.manifest = manifest;
+        this.assets = assets;
+        this.minSize = minSize;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final Optional<Asset> asset = findAsset(request);
+        if (asset.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        serve(asset.get(), request, response);
+    }
+
+    private Optional<Asset> findAsset(final HttpServletRequest request) throws IOException {
+        final String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return Optional.empty();
+        }
+
+        final String prefix = request.getContextPath() + PREFIX_STATIC_RESOURCES + "/";
+        final String requestUri = request.getRequestURI();
+        if (!requestUri.startsWith(prefix)) {
+            return Optional.empty();
+        }
+        final String versionedPath = UriUtils.decode(requestUri.substring(prefix.length()), StandardCharsets.UTF_8);
+        final int separator = versionedPath.indexOf('/');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        final String version = versionedPath.substring(0, separator);
+        final String path = versionedPath.substring(separator + 1);
+        if (!version.equals(manifest.getVersion(path))) {
+            return Optional.empty();
+        }
+
+        final Optional<Path> file = assets.find(path);
+        if (file.isEmpty() || Files.size(file.get()) < minSize) {
+            return Optional.empty();
+        }
+        final Optional<Path> precompressed = assets.findPrecompressed(path);
+        if (precompressed.isPresent() && acceptsGzip(request) && request.getHeader(HttpHeaders.RANGE) == null) {
+            return Optional.of(new Asset(path, version, precompressed.get(), GZIP));
+        }
+        return Optional.of(new Asset(path, version, file.get(), null));
+    }
+
+    private void serve(final Asset asset, final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (asset.contentCoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, asset.contentCoding);
+        }
+        final long lastModified = Files.getLastModifiedTime(asset.file).toMillis();
+        if (new ServletWebRequest(request, response).checkNotModified(asset.etag(), lastModified)) {
+            return;
+        }
+
+        final long length = Files.size(asset.file);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES);
+        final List<HttpRange> ranges;
+        try {
+            ranges = requestedRanges(request, asset, lastModified, length);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+
+        if (ranges.isEmpty()) {
+            response.setContentType(asset.mediaType().toString());
+            response.setContentLengthLong(length);
+            if (!HttpMethod.HEAD.matches(request.getMethod())) {
+                transfer(asset.file, 0, length, request, response);
+            }
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            final long start = ranges.get(0).getRangeStart(length);
+            final long end = ranges.get(0).getRangeEnd(length);
+            response.setContentType(asset.mediaType().toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, length));
+            response.setContentLengthLong(end - start + 1);
+            if (!HttpMethod.HEAD.matches(request.getMethod())) {
+                transfer(asset.file, start, end + 1, request, response);
+            }
+            return;
+        }
+        transferMultipart(asset, ranges, length, request, response);
+    }
+
+    /**
+     * @return 보낼 구간. 전체를 보내야 하면 빈 목록
+     * @throws IllegalArgumentException 구간이 잘못되었거나 파일 범위를 벗어나면
+     */
+    private static List<HttpRange> requestedRanges(final HttpServletRequest request, final Asset asset,
+                                                   final long lastModified, final long length) {
+        final String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null || !isIfRangeSatisfied(request, asset, lastModified)) {
+            return List.of();
+        }
+        final List<HttpRange> ranges = HttpRange.parseRanges(range);
+        long total = 0;
+        for (final HttpRange httpRange : ranges) {
+            if (httpRange.getRangeStart(length) >= length) {
+                throw new IllegalArgumentException("range starts beyond the end of the file : " + range);
+            }
+            total += httpRange.getRangeEnd(length) - httpRange.getRangeStart(length) + 1;
+        }
+        // 겹치는 구간을 반복해서 요청해 파일보다 많이 보내게 하는 요청은 받지 않는다.
+        if (ranges.size() > 1 && total > length) {
+            throw new IllegalArgumentException("total length of ranges exceeds the file length : " + range);
+        }
+        return ranges;
+    }
+
+    /**
+     * If-Range에 ETag를 보냈으면 강한 비교로, 날짜를 보냈으면 Last-Modified와 초 단위로 비교한다.
+     */
+    private static boolean isIfRangeSatisfied(final HttpServletRequest request, final Asset asset,
+                                              final long lastModified) {
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(asset.etag());
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void transferMultipart(final Asset asset, final List<HttpRange> ranges, final long length,
+                                          final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        final String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        final String contentType = asset.mediaType().toString();
+        final List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (final HttpRange range : ranges) {
+            final long start = range.getRangeStart(length);
+            final long end = range.getRangeEnd(length);
+            final byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(start, end, length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + end - start + 1;
+        }
+        final byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        final ServletOutputStream outputStream = response.getOutputStream();
+        final WritableByteChannel out = Channels.newChannel(outputStream);
+        try (final FileChannel channel = FileChannel.open(asset.file)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                outputStream.write(partHeaders.get(i));
+                final long start = ranges.get(i).getRangeStart(length);
+                transferTo(channel, start, ranges.get(i).getRangeEnd(length) + 1, out);
+            }
+        }
+        outputStream.write(closing);
+    }
+
+    private static String contentRange(final long start, final long end, final long length) {
+        return "bytes " + start + "-" + end + "/" + length;
+    }
+
+    /**
+     * sendfile 속성을 설정하고 본문을 쓰지 않은 채 반환하면 톰캣이 서블릿 처리 이후에 파일을 보낸다.
+     */
+    private static void transfer(final Path file, final long start, final long end,
+                                 final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        try (final FileChannel channel = FileChannel.open(file)) {
+            transferTo(channel, start, end, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static void transferTo(final FileChannel channel, final long start, final long end,
+                                   final WritableByteChannel out) throws IOException {
+        long position = start;
+        while (position < end) {
+            position += channel.transferTo(position, end - position, out);
+        }
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        return AcceptEncoding.accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING), GZIP);
+    }
+
+    private static final class Asset {
+
+        private final String path;
+        private final String version;
+        private final Path file;
+        private final String contentCoding;
+
+        private Asset(final String path, final String version, final Path file, final String contentCoding) {
+            this.path = path;
+            this.version = version;
+            this.file = file;
+            this.contentCoding = contentCoding;
+        }
+
+        private String etag() {
+            return VersionedResource.etag(version, contentCoding);
+        }
+
+        private MediaType mediaType() {
+            return MediaTypeFactory.getMediaType(path).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        }
+    }
+}
@@ -1,18 +1,27 @@
 package com.example;
 
-import com.example.version.ResourceVersion;
+import com.example.version.AssetManifest;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.DigestUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
 import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class GreetingControllerTest {
@@ -20,11 +29,14 @@ class GreetingControllerTest {
     private static final Logger log = LoggerFactory.getLogger(GreetingControllerTest.class);
 
     @Autowired
-    private ResourceVersion version;
+    private AssetManifest manifest;
 
     @Autowired
     private WebTestClient webTestClient;
 
+    @LocalServerPort
+    private int port;
+
     @Test
     void testNoCachePrivate() {
         final var response = webTestClient
@@ -38,17 +50,22 @@ class GreetingControllerTest {
         log.info("response body\n{}", response.getResponseBody());
     }
 
+    /**
+     * gzip으로 요청 보내도 어떤 방식으로 압축할지 서버(AdaptiveCompressionFilter)에서 결정한다.
+     * 필터는 본문을 다 모은 뒤에 압축 여부를 정하므로 압축하든 안 하든 chunked가 아니라 Content-Length를 붙여 보낸다.
+     */
     @Test
     void testCompression() {
-        final var response = webTestClient
+        final var uncompressedClient = UncompressedWebTestClient.bindToPort(port);
+
+        final var response = uncompressedClient
                 .get()
                 .uri("/")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
                 .exchange()
                 .expectStatus().isOk()
-
-                // gzip으로 요청 보내도 어떤 방식으로 압축할지 서버에서 결정한다.
-                // 웹브라우저에서 localhost:8080으로 접근하면 응답 헤더에 "Content-Encoding: gzip"이 있다.
-                .expectHeader().valueEquals(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .expectHeader().exists(HttpHeaders.CONTENT_LENGTH)
+                .expectHeader().doesNotExist(HttpHeaders.TRANSFER_ENCODING)
                 .expectBody(String.class).returnResult();
 
         log.info("response body\n{}", response.getResponseBody());
@@ -67,6 +84,51 @@ class GreetingControllerTest {
         log.info("response body\n{}", response.getResponseBody());
     }
 
+    /**
+     * /etag는 템플릿, ResourceVersion으로 만든 약한 ETag를 렌더링 전에 정한다.
+     * If-None-Match가 같으면 컨트롤러와 뷰 렌더링을 거치지 않고 인터셉터에서 304를 응답한다.
+     */
+    @Test
+    void testConditionalView() {
+        final var etag = webTestClient.get()
+                .uri("/etag")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult()
+                .getResponseHeaders().getETag();
+
+        assertThat(etag).startsWith("W/");
+
+        webTestClient.get()
+                .uri("/etag")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    /**
+     * ETag 대신 날짜 검증자만 쓰는 클라이언트도 렌더링 없이 304를 받는다.
+     */
+    @Test
+    void testLastModifiedOfConditionalView() {
+        final var lastModified = webTestClient.get()
+                .uri("/etag")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult()
+                .getResponseHeaders().getLastModified();
+
+        assertThat(lastModified).isPositive();
+
+        webTestClient.get()
+                .uri("/etag")
+                .ifModifiedSince(ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneOffset.UTC))
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
     /**
      * http://localhost:8080/resource-versioning
      * 위 url의 html 파일에서 사용하는 js, css와 같은 정적 파일에 캐싱을 적용한다.
@@ -75,7 +137,7 @@ class GreetingControllerTest {
      */
     @Test
     void testCacheBustingOfStaticResources() {
-        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getVersion());
+        final var uri = manifest.getUrl("/js/index.js");
 
         // "/resource-versioning/js/index.js" 경로의 정적 파일에 ETag를 사용한 캐싱이 적용되었는지 확인한다.
         final var response = webTestClient
@@ -99,4 +161,85 @@ class GreetingControllerTest {
                 .expectStatus()
                 .isNotModified();
     }
+
+    /**
+     * 정적 파일의 버전은 배포 시각이 아니라 파일 내용의 해시다.
+     * 내용이 바뀌지 않은 파일은 배포 후에도 URL이 같으므로 브라우저 캐시를 그대로 쓴다.
+     */
+    @Test
+    void testContentHashVersionOfStaticResources() throws IOException {
+        final String expectedVersion;
+        try (final InputStream inputStream = new ClassPathResource("static/js/index.js").getInputStream()) {
+            expectedVersion = DigestUtils.md5DigestAsHex(inputStream);
+        }
+
+        final var uri = manifest.getUrl("/js/index.js");
+
+        assertThat(uri).isEqualTo(String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, expectedVersion));
+
+        // 매니페스트와 다른 버전으로 요청하면 찾을 수 없다.
+        webTestClient.get()
+                .uri(String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, "outdated"))
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    /**
+     * resource-versioning 페이지는 스크립트를 하나씩 요청하지 않고 빌드할 때 묶어 둔 번들 하나만 요청한다.
+     * 번들도 내용 해시로 버전이 붙은 정적 파일이므로 1년 동안 캐싱한다.
+     */
+    @Test
+    void testBundledStaticResources() {
+        final var bundleUrl = manifest.getUrl("/bundles/app.js");
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .contains(bundleUrl)
+                        .doesNotContain(manifest.getUrl("/js/index.js")));
+
+        webTestClient.get()
+                .uri(bundleUrl)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic())
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("console.log('hello world')"));
+    }
+
+    /**
+     * 빌드할 때 만든 .gz 압축본을 Accept-Encoding에 따라 골라서 그대로 내려준다.
+     * 요청마다 압축하지 않으므로 CPU를 쓰지 않는다.
+     * Content-Encoding을 보려면 응답을 풀지 않는 클라이언트로 요청해야 한다.
+     */
+    @Test
+    void testPrecompressedStaticResources() {
+        final var uri = manifest.getUrl("/js/index.js");
+        final var uncompressedClient = UncompressedWebTestClient.bindToPort(port);
+
+        final var gzipResponse = uncompressedClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody().returnResult();
+
+        final var identityResponse = uncompressedClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody().returnResult();
+
+        // 인코딩이 다르면 ETag도 다르다.
+        assertThat(gzipResponse.getResponseHeaders().getETag())
+                .isNotEqualTo(identityResponse.getResponseHeaders().getETag());
+    }
 }
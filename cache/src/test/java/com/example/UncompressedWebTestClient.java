@@ -0,0 +1,22 @@
+package com.example;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * 자동 구성된 WebTestClient는 Reactor Netty의 compress(true)로 요청하므로
+ * gzip 응답을 스스로 풀고 Content-Encoding 헤더를 지운다.
+ * 서버가 내려준 인코딩과 압축된 본문을 그대로 확인해야 할 때 이 클라이언트를 쓴다.
+ */
+public final class UncompressedWebTestClient {
+
+    private UncompressedWebTestClient() {
+    }
+
+    public static WebTestClient bindToPort(final int port) {
+        return WebTestClient.bindToServer(new ReactorClientHttpConnector(HttpClient.create().compress(false)))
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+}
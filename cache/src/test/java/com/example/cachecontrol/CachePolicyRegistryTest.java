@@ -0,0 +1,41 @@
+package com.example.cachecontrol;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachePolicyRegistryTest {
+
+    private final CachePolicy immutable = CachePolicy.of(CacheControl.maxAge(Duration.ofDays(365)).cachePublic());
+    private final CachePolicy noStore = CachePolicy.of(CacheControl.noStore());
+    private final CachePolicy noCache = CachePolicy.of(CacheControl.noCache().cachePrivate());
+
+    private final CachePolicyRegistry registry = CachePolicyRegistry.builder()
+            .add("/**", noCache)
+            .add("/resources/**", immutable)
+            .add("/resources/*/private/**", noStore)
+            .add("/login", noStore)
+            .build();
+
+    @Test
+    void testMoreSpecificPatternWins() {
+        assertThat(registry.find("/resources/abc/js/index.js")).isSameAs(immutable);
+        assertThat(registry.find("/resources/abc/private/a.js")).isSameAs(noStore);
+    }
+
+    @Test
+    void testExactPathAndDefault() {
+        assertThat(registry.find("/login")).isSameAs(noStore);
+        assertThat(registry.find("/")).isSameAs(noCache);
+        assertThat(registry.find("/etag")).isSameAs(noCache);
+    }
+
+    @Test
+    void testHeaderValueIsSerializedOnce() {
+        assertThat(registry.find("/resources/abc/js/index.js").getCacheControl())
+                .isSameAs(registry.find("/resources/def/css/app.css").getCacheControl());
+    }
+}
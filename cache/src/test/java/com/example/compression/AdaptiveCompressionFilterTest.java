@@ -0,0 +1,216 @@
+package com.example.compression;
+
+import com.example.UncompressedWebTestClient;
+import com.example.support.BufferPool;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "cache.compression.min-size=0")
+class AdaptiveCompressionFilterTest {
+
+    @Autowired
+    private CompressionMetrics metrics;
+
+    @Autowired
+    private BufferPool bufferPool;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * 자동 구성된 WebTestClient는 gzip 응답을 풀고 Content-Encoding을 지우므로 응답을 풀지 않는 클라이언트로 요청한다.
+     * 압축한 본문이 톰캣의 응답 버퍼 안에서 끝나면 톰캣이 Content-Length를 붙인다.
+     */
+    @Test
+    void testCompressWhenClientAcceptsGzip() throws IOException {
+        final var uncompressedClient = UncompressedWebTestClient.bindToPort(port);
+        final long bytesIn = metrics.getBytesIn();
+
+        final byte[] identity = uncompressedClient.get()
+                .uri("/")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        final var compressed = uncompressedClient.get()
+                .uri("/")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectHeader().doesNotExist(HttpHeaders.TRANSFER_ENCODING)
+                .expectBody(byte[].class).returnResult();
+
+        assertThat(compressed.getResponseHeaders().getContentLength()).isEqualTo(compressed.getResponseBody().length);
+        assertThat(gunzip(compressed.getResponseBody())).isEqualTo(identity);
+        assertThat(metrics.getBytesIn()).isGreaterThan(bytesIn);
+        assertThat(metrics.getCompressionRatio()).isLessThan(1);
+    }
+
+    /**
+     * 압축, ETag, 페이지 캐시가 빌린 버퍼를 응답이 끝나면 모두 돌려줘야 한다.
+     * 클라이언트가 본문을 다 받은 뒤에 필터의 finally가 실행될 수 있으므로 잠시 기다린다.
+     */
+    @Test
+    void testBuffersAreReturnedToPool() throws InterruptedException {
+        for (final String uri : List.of("/", "/etag", "/resource-versioning")) {
+            for (final String acceptEncoding : List.of("gzip", "identity")) {
+                webTestClient.get()
+                        .uri(uri)
+                        .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                        .exchange()
+                        .expectStatus().isOk();
+            }
+        }
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (bufferPool.getOutstandingCount() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bufferPool.getOutstandingCount()).isZero();
+        assertThat(bufferPool.getReuseCount()).isPositive();
+    }
+
+    /**
+     * 손익분기 크기를 넘은 본문은 다 모으지 않고 압축하면서 보내므로, 핸들러가 아직 쓰고 있을 때 이미 커밋된다.
+     */
+    @Test
+    void testLargeBodyIsStreamed() throws Exception {
+        final var response = new MockHttpServletResponse();
+        final String body = "<p>streamed</p>".repeat(response.getBufferSize());
+        final FilterChain chain = (req, res) -> {
+            res.setContentType("text/html");
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            assertThat(res.isCommitted()).isTrue();
+        };
+
+        filter(64).doFilter(gzipRequest(), response, chain);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(new String(gunzip(response.getContentAsByteArray()), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    /**
+     * 손익분기 크기 안에서 끝난 본문은 압축하지 않고 Content-Length를 붙여 보낸다.
+     */
+    @Test
+    void testSmallBodyIsPassedThrough() throws Exception {
+        final var response = new MockHttpServletResponse();
+        final FilterChain chain = (req, res) -> {
+            res.setContentType("text/html");
+            res.getWriter().write("<p>small</p>");
+        };
+
+        filter(64).doFilter(gzipRequest(), response, chain);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(12);
+        assertThat(response.getContentAsString()).isEqualTo("<p>small</p>");
+    }
+
+    /**
+     * 압축본에는 원본의 강한 ETag 대신 약한 ETag를 붙이고, 같은 ETag의 두 번째 요청은 보관해 둔 압축본으로 보낸다.
+     */
+    @Test
+    void testCompressedResponseHasWeakEtag() throws Exception {
+        final String body = "<p>cached</p>".repeat(100);
+        final FilterChain chain = (req, res) -> {
+            res.setContentType("text/html");
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"v1\"");
+            res.getWriter().write(body);
+        };
+        final var filter = filter(64);
+        final var first = new MockHttpServletResponse();
+        filter.doFilter(gzipRequest(), first, chain);
+        final var second = new MockHttpServletResponse();
+        filter.doFilter(gzipRequest(), second, chain);
+
+        assertThat(first.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"v1\"");
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"v1\"");
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getContentLength()).isEqualTo(second.getContentAsByteArray().length);
+        assertThat(new String(gunzip(second.getContentAsByteArray()), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    /**
+     * 비동기 요청은 처음 디스패치에서 쓴 본문과 비동기 디스패치에서 쓴 본문을 같은 래퍼로 이어서 압축한다.
+     */
+    @Test
+    void testAsyncDispatchCompletesCompression() throws Exception {
+        final var request = gzipRequest();
+        request.setAsyncSupported(true);
+        final var response = new MockHttpServletResponse();
+        final String body = "<p>async</p>".repeat(100);
+        final var filter = filter(64);
+
+        filter.doFilter(request, response, (req, res) -> {
+            final var asyncWebRequest = new StandardServletAsyncWebRequest((HttpServletRequest) req,
+                    (HttpServletResponse) res);
+            WebAsyncUtils.getAsyncManager(req).setAsyncWebRequest(asyncWebRequest);
+            asyncWebRequest.startAsync();
+            res.setContentType("text/html");
+            res.getWriter().write(body.substring(0, body.length() / 2));
+        });
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        final var asyncContext = (MockAsyncContext) request.getAsyncContext();
+        filter.doFilter(request, asyncContext.getResponse(),
+                (req, res) -> res.getWriter().write(body.substring(body.length() / 2)));
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(new String(gunzip(response.getContentAsByteArray()), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void testBreakEvenSizeIsMeasured() {
+        assertThat(BreakEvenSize.measure(List.of(new byte[4096]), 0.2, 6)).isLessThanOrEqualTo(128);
+    }
+
+    private AdaptiveCompressionFilter filter(final int minSize) {
+        return new AdaptiveCompressionFilter(minSize, Set.of("text/html"), new CompressionLevelSelector(),
+                1 << 20, metrics, bufferPool);
+    }
+
+    private static MockHttpServletRequest gzipRequest() {
+        final var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        return request;
+    }
+
+    private static byte[] gunzip(final byte[] compressed) throws IOException {
+        try (final var gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.etag;
+
+import com.example.version.ResourceVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class StreamingEtagHeaderFilterTest {
+
+    private static final String BODY = "Hello, World!";
+
+    private StreamingEtagHeaderFilter filter;
+    private AtomicInteger handlerCalls;
+    private FilterChain chain;
+    private AtomicReference<String> body;
+
+    @BeforeEach
+    void setUp() {
+        final var version = mock(ResourceVersion.class);
+        given(version.getVersion()).willReturn("v1");
+        filter = new StreamingEtagHeaderFilter(version);
+        handlerCalls = new AtomicInteger();
+        body = new AtomicReference<>(BODY);
+        chain = (request, response) -> {
+            handlerCalls.incrementAndGet();
+            response.setContentType("text/plain");
+            response.getWriter().write(body.get());
+        };
+    }
+
+    /**
+     * 처음 보는 URL은 한 번 버퍼링해서 ETag를 계산한다.
+     * 다음 요청부터는 버퍼링하지 않고, 기억해 둔 ETag를 헤더로 먼저 보낸 뒤 본문을 해시해 확인한다.
+     */
+    @Test
+    void testKnownEtagIsSentWithoutBuffering() throws Exception {
+        final var first = get(null);
+        final var etag = first.getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).isNotNull();
+        assertThat(first.getContentAsString()).isEqualTo(BODY);
+
+        final var second = get(null);
+
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(second.getContentAsString()).isEqualTo(BODY);
+        assertThat(handlerCalls).hasValue(2);
+    }
+
+    /**
+     * 알고 있는 ETag와 If-None-Match가 같으면 핸들러를 호출하지 않는다.
+     */
+    @Test
+    void testNotModifiedWithoutCallingHandler() throws Exception {
+        final var etag = get(null).getHeader(HttpHeaders.ETAG);
+
+        final var response = get(etag);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsString()).isEmpty();
+        assertThat(handlerCalls).hasValue(1);
+    }
+
+    /**
+     * 버전을 바꾸지 않고 내용이 바뀌어도 기억해 둔 ETag를 그대로 보내지 않는다.
+     */
+    @Test
+    void testChangedContentIsNotSentWithStaleEtag() throws Exception {
+        final var staleEtag = get(null).getHeader(HttpHeaders.ETAG);
+
+        body.set("Hello, Changed World!");
+        final var changed = get(null);
+
+        assertThat(changed.getContentAsString()).isEqualTo("Hello, Changed World!");
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotNull().isNotEqualTo(staleEtag);
+    }
+
+    /**
+     * 본문이 응답 버퍼보다 커서 핸들러가 쓰는 도중에 커밋되어도 기억해 둔 ETag가 헤더에 붙는다.
+     */
+    @Test
+    void testKnownEtagIsSentWhenBodyExceedsBuffer() throws Exception {
+        final var response = new MockHttpServletResponse();
+        body.set("a".repeat(response.getBufferSize() * 4));
+        final var etag = get(null).getHeader(HttpHeaders.ETAG);
+
+        final var request = new MockHttpServletRequest("GET", "/etag");
+        filter.doFilter(request, response, (req, res) -> {
+            chain.doFilter(req, res);
+            assertThat(res.isCommitted()).isTrue();
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull().isEqualTo(etag);
+        assertThat(response.getContentAsString()).isEqualTo(body.get());
+
+        // 커밋한 뒤에 내용이 바뀐 것을 알게 되면 기억해 둔 ETag를 잊고 다음 요청에서 다시 계산한다.
+        body.set("b".repeat(response.getBufferSize() * 4));
+        get(null);
+        final var recomputed = get(null);
+
+        assertThat(recomputed.getHeader(HttpHeaders.ETAG)).isNotNull().isNotEqualTo(etag);
+    }
+
+    /**
+     * 필터 안쪽에서 Accept-Encoding에 따라 본문이 달라질 수 있으므로 인코딩마다 ETag를 따로 기억한다.
+     */
+    @Test
+    void testKnownEtagIsKeptPerAcceptEncoding() throws Exception {
+        chain = (request, response) -> {
+            handlerCalls.incrementAndGet();
+            response.setContentType("text/plain");
+            ((HttpServletResponse) response).setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            final String acceptEncoding = ((HttpServletRequest) request).getHeader(HttpHeaders.ACCEPT_ENCODING);
+            response.getWriter().write(acceptEncoding == null ? BODY : BODY + "!");
+        };
+        final var identityEtag = get(null).getHeader(HttpHeaders.ETAG);
+
+        final var request = new MockHttpServletRequest("GET", "/etag");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, identityEtag);
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotNull().isNotEqualTo(identityEtag);
+        assertThat(handlerCalls).hasValue(2);
+    }
+
+    /**
+     * 본문을 버퍼링하지 않는 응답은 논블로킹 쓰기를 감싼 스트림에 넘긴다.
+     */
+    @Test
+    void testWriteListenerIsDelegatedWhenNotBuffering() throws Exception {
+        final var listener = new AtomicReference<WriteListener>();
+        final var request = new MockHttpServletRequest("POST", "/etag");
+        final var response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new ListenerRecordingOutputStream(listener);
+            }
+        };
+        final WriteListener writeListener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+            }
+        };
+
+        filter.doFilter(request, response, (req, res) -> {
+            final var outputStream = res.getOutputStream();
+            assertThat(outputStream.isReady()).isFalse();
+            outputStream.setWriteListener(writeListener);
+        });
+
+        assertThat(listener).hasValue(writeListener);
+    }
+
+    /**
+     * TE: trailers를 보낸 클라이언트에게는 처음부터 버퍼링하지 않고 ETag를 트레일러로 보낸다.
+     */
+    @Test
+    void testEtagAsTrailer() throws Exception {
+        final var request = new MockHttpServletRequest("GET", "/etag");
+        request.addHeader("TE", "trailers");
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getHeader("Trailer")).isEqualTo(HttpHeaders.ETAG);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+
+        // 트레일러로 보낸 ETag도 기억해서 다음 요청에는 헤더로 보낸다.
+        assertThat(get(null).getHeader(HttpHeaders.ETAG)).isNotNull();
+    }
+
+    private MockHttpServletResponse get(final String ifNoneMatch) throws Exception {
+        final var request = new MockHttpServletRequest("GET", "/etag");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static final class ListenerRecordingOutputStream extends ServletOutputStream {
+
+        private final AtomicReference<WriteListener> listener;
+
+        private ListenerRecordingOutputStream(final AtomicReference<WriteListener> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean isReady() {
+            return false;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            listener.set(writeListener);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.etag;
+
+import com.example.version.ResourceVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ViewValidatorTest {
+
+    /**
+     * 뷰 템플릿은 그대로여도 partial이 바뀌면 렌더링 결과가 달라지므로 ETag도 달라야 한다.
+     */
+    @Test
+    void testPartialChangesEtag(@TempDir final Path templates) throws Exception {
+        write(templates.resolve("index.hbs"), "{{> header}}<p>index</p>");
+        write(templates.resolve("header.hbs"), "<h1>v1</h1>");
+        final String before = validator(templates, build("1.0", "1")).etag("index");
+
+        write(templates.resolve("header.hbs"), "<h1>v2</h1>");
+        final String after = validator(templates, build("1.0", "1")).etag("index");
+
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    /**
+     * 템플릿과 정적 파일이 그대로여도 다시 빌드한 배포는 헬퍼나 메시지가 바뀌었을 수 있으므로 ETag가 달라야 한다.
+     */
+    @Test
+    void testBuildChangesEtag(@TempDir final Path templates) throws Exception {
+        write(templates.resolve("index.hbs"), "<p>index</p>");
+
+        final String first = validator(templates, build("1.0", "1")).etag("index");
+        final String same = validator(templates, build("1.0", "1")).etag("index");
+        final String rebuilt = validator(templates, build("1.0", "2")).etag("index");
+
+        assertThat(same).isEqualTo(first).startsWith("W/");
+        assertThat(rebuilt).isNotEqualTo(first);
+    }
+
+    private static ViewValidator validator(final Path templates, final BuildProperties buildProperties)
+            throws Exception {
+        final var version = mock(ResourceVersion.class);
+        given(version.getVersion()).willReturn("v1");
+        @SuppressWarnings("unchecked")
+        final ObjectProvider<ModelVersionProvider> modelVersionProvider = mock(ObjectProvider.class);
+        @SuppressWarnings("unchecked")
+        final ObjectProvider<BuildProperties> build = mock(ObjectProvider.class);
+        given(build.getIfAvailable()).willReturn(buildProperties);
+
+        final var validator = new ViewValidator(new DefaultResourceLoader(), version, modelVersionProvider, build,
+                templates.toUri().toString(), ".hbs");
+        validator.init();
+        return validator;
+    }
+
+    private static BuildProperties build(final String version, final String epochMillis) {
+        final var properties = new Properties();
+        properties.setProperty("version", version);
+        properties.setProperty("time", epochMillis);
+        return new BuildProperties(properties);
+    }
+
+    private static void write(final Path path, final String content) throws Exception {
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.metrics;
+
+import com.example.version.AssetManifest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CacheMetricsTest {
+
+    @Autowired
+    private AssetManifest manifest;
+
+    @Autowired
+    private CacheMetrics metrics;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * 버전이 붙은 정적 파일은 어느 필터가 304를 응답했든 /resources/** 하나로 묶여서 센다.
+     */
+    @Test
+    void testNotModifiedIsCountedPerRoute() {
+        final var uri = manifest.getUrl("/js/index.js");
+        final var etag = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult()
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get()
+                .uri("/actuator/cache")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.routes['" + PREFIX_STATIC_RESOURCES + "/**'].notModified").value(
+                        (Integer notModified) -> assertThat(notModified).isPositive())
+                .jsonPath("$.routes['" + PREFIX_STATIC_RESOURCES + "/**'].conditional").value(
+                        (Integer conditional) -> assertThat(conditional).isPositive())
+                .jsonPath("$.etagHash.count").exists()
+                .jsonPath("$.compression.bytesIn").exists();
+    }
+
+    @Test
+    void testRenderTimeIsRecorded() {
+        final long before = metrics.getRenderTime().getCount();
+
+        webTestClient.get()
+                .uri("/")
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(metrics.getRenderTime().getCount()).isGreaterThan(before);
+        assertThat(metrics.summary()).contains("requests=");
+    }
+
+    @Test
+    void testHistogramPercentileIsUpperBoundOfBucket() {
+        final var histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000);
+        }
+        histogram.record(1_000_000);
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.percentile(0.5)).isBetween(1_000L, 2_047L);
+        assertThat(histogram.percentile(1.0)).isBetween(1_000_000L, 2_097_151L);
+    }
+}
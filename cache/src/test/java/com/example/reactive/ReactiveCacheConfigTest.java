@@ -0,0 +1,122 @@
+package com.example.reactive;
+
+import com.example.UncompressedWebTestClient;
+import com.example.version.AssetManifest;
+import com.example.version.VersionedResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * reactive 프로필에서도 GreetingControllerTest와 같은 캐시 헤더와 304 응답을 받는다.
+ * 압축본의 Content-Encoding과 ETag를 그대로 보려고 응답을 풀지 않는 클라이언트로 요청한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveCacheConfigTest {
+
+    @Autowired
+    private AssetManifest manifest;
+
+    @LocalServerPort
+    private int port;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = UncompressedWebTestClient.bindToPort(port);
+    }
+
+    @Test
+    void testNoCachePrivate() {
+        webTestClient.get()
+                .uri("/")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate())
+                .expectBody(String.class)
+                .value(body -> assertThat(body).isNotEmpty());
+    }
+
+    @Test
+    void testConditionalView() {
+        final var etag = webTestClient.get()
+                .uri("/etag")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .expectBody(String.class).returnResult()
+                .getResponseHeaders().getETag();
+
+        assertThat(etag).startsWith("W/");
+
+        webTestClient.get()
+                .uri("/etag")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    @Test
+    void testCacheBustingOfStaticResources() {
+        final var uri = manifest.getUrl("/js/index.js");
+        final var etag = VersionedResource.etag(manifest.getVersion("js/index.js"), null);
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic());
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic());
+
+        webTestClient.get()
+                .uri(uri.replace(manifest.getVersion("js/index.js"), "outdated"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testPrecompressedStaticResources() {
+        webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.ETAG,
+                        VersionedResource.etag(manifest.getVersion("js/index.js"), "gzip"));
+    }
+
+    @Test
+    void testBundledStaticResources() {
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.LINK,
+                        "<" + manifest.getUrl("/bundles/app.js") + ">; rel=preload; as=script")
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains(manifest.getUrl("/bundles/app.js")));
+    }
+}
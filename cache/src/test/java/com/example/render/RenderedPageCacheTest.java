@@ -0,0 +1,72 @@
+package com.example.render;
+
+import com.example.version.AssetManifest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RenderedPageCacheTest {
+
+    @Autowired
+    private RenderedPageCache cache;
+
+    @Autowired
+    private AssetManifest manifest;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * resource-versioning 뷰는 ResourceVersion이 같으면 렌더링 결과도 같다.
+     * 두 번째 요청부터는 템플릿을 렌더링하지 않고 캐시에 있는 바이트를 그대로 쓴다.
+     */
+    @Test
+    void testRenderedPageIsServedFromCache() {
+        final var first = render("/resource-versioning");
+        final long hits = cache.getHitCount();
+
+        final var second = render("/resource-versioning");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.getHitCount()).isGreaterThan(hits);
+    }
+
+    /**
+     * 시작할 때 TemplateWarmUp이 캐싱하는 뷰를 미리 렌더링해 둔다.
+     */
+    @Test
+    void testRenderedPageIsWarmedUpAtStartup() {
+        assertThat(cache.get("index", Locale.getDefault())).isNotNull();
+        assertThat(cache.get("resource-versioning", Locale.getDefault())).isNotNull();
+    }
+
+    /**
+     * resource-versioning 템플릿이 참조하는 스크립트 번들을 본문보다 먼저 헤더로 알려준다.
+     */
+    @Test
+    void testPreloadLinkFromTemplateAssetReferences() {
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.LINK,
+                        "<" + manifest.getUrl("/bundles/app.js") + ">; rel=preload; as=script");
+    }
+
+    private String render(final String uri) {
+        return webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.render;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.CacheControl;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "cache.rendered-pages.refresh-after=0s",
+                "cache.rendered-pages.stale-while-revalidate=1h"
+        })
+class StaleWhileRevalidateTest {
+
+    @Autowired
+    private RenderedPageCache cache;
+
+    @Autowired
+    private PageRefresher refresher;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * refresh-after가 0이므로 렌더링하자마자 stale이다.
+     * 두 번째 요청은 이전 페이지를 바로 받고, 다시 렌더링은 백그라운드에서 끝난다.
+     */
+    @Test
+    void testStalePageIsServedWhileRefreshing() throws InterruptedException {
+        final var first = render();
+        final long hits = cache.getHitCount();
+        final long refreshes = refresher.getRefreshCount();
+
+        final var second = render();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.getHitCount()).isGreaterThan(hits);
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (refresher.getRefreshCount() == refreshes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(refresher.getRefreshCount()).isGreaterThan(refreshes);
+        assertThat(render()).isEqualTo(first);
+    }
+
+    @Test
+    void testStaleDirectives() {
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ZERO)
+                        .cachePrivate()
+                        .staleWhileRevalidate(Duration.ofMinutes(1))
+                        .staleIfError(Duration.ofDays(1)));
+    }
+
+    private String render() {
+        return webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
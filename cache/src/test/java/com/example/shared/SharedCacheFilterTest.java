@@ -0,0 +1,98 @@
+package com.example.shared;
+
+import com.example.UncompressedWebTestClient;
+import com.example.version.AssetManifest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "cache.shared.enabled=true")
+class SharedCacheFilterTest {
+
+    @Autowired
+    private AssetManifest manifest;
+
+    @Autowired
+    private SharedResponseCache cache;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * public으로 표시된 정적 파일은 두 번째 요청부터 공유 캐시에서 Age와 함께 응답한다.
+     */
+    @Test
+    void testPublicResponseIsServedFromSharedCache() {
+        final var uri = manifest.getUrl("/js/index.js");
+        final long hits = cache.getHitCount();
+        final long bytesSaved = cache.getBytesSaved();
+
+        final var first = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult();
+
+        final var second = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.AGE)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, first.getResponseHeaders().getETag())
+                .expectBody(String.class).returnResult();
+
+        assertThat(second.getResponseBody()).isEqualTo(first.getResponseBody());
+        assertThat(cache.getHitCount()).isGreaterThan(hits);
+        assertThat(cache.getBytesSaved()).isGreaterThan(bytesSaved);
+    }
+
+    /**
+     * Accept-Encoding에 따라 본문이 다르므로 Vary 값마다 따로 저장한다.
+     * Content-Encoding을 보려면 응답을 풀지 않는 클라이언트로 요청해야 한다.
+     */
+    @Test
+    void testVaryDimensionsAreStoredSeparately() {
+        final var uri = manifest.getUrl("/js/index.js");
+        final var uncompressedClient = UncompressedWebTestClient.bindToPort(port);
+
+        for (int i = 0; i < 2; i++) {
+            uncompressedClient.get()
+                    .uri(uri)
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .exchange()
+                    .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+            uncompressedClient.get()
+                    .uri(uri)
+                    .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                    .exchange()
+                    .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING);
+        }
+    }
+
+    /**
+     * no-cache, private 응답은 저장하지 않는다.
+     */
+    @Test
+    void testPrivateResponseIsNotStored() {
+        final long stores = cache.getStoreCount();
+
+        webTestClient.get()
+                .uri("/")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate())
+                .expectHeader().doesNotExist(HttpHeaders.AGE);
+
+        assertThat(cache.getStoreCount()).isEqualTo(stores);
+    }
+}
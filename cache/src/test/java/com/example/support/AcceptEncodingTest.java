@@ -0,0 +1,37 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @Test
+    void testAccepts() {
+        assertThat(AcceptEncoding.accepts("gzip, deflate, br", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts("GZIP;q=0.5", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts("*", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts(null, "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("identity", "gzip")).isFalse();
+    }
+
+    /**
+     * q가 0이면 그 인코딩을 거절한 것이다. 이름이 적혀 있으면 *보다 우선한다.
+     */
+    @Test
+    void testZeroQualityRefuses() {
+        assertThat(AcceptEncoding.accepts("gzip;q=0", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("gzip; q=0.000, br", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("*;q=0", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("gzip;q=0, *", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("*;q=0, gzip", "gzip")).isTrue();
+        assertThat(AcceptEncoding.accepts("x-gzip-ish", "gzip")).isFalse();
+    }
+
+    @Test
+    void testNormalize() {
+        assertThat(AcceptEncoding.normalize("br, GZIP ;q=0.5,deflate"))
+                .isEqualTo(AcceptEncoding.normalize("deflate, br, gzip;q=0.5"));
+        assertThat(AcceptEncoding.normalize(null)).isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class BufferPoolTest {
+
+    @Test
+    void testReleasedBufferIsReusedForSameSizeClass() {
+        final var pool = new BufferPool(1 << 16, 1 << 20);
+
+        final byte[] first = pool.acquire(3000);
+        pool.release(first);
+        final byte[] second = pool.acquire(4096);
+
+        assertThat(first).hasSize(4096).isSameAs(second);
+        assertThat(pool.getAllocationCount()).isEqualTo(1);
+        assertThat(pool.getReuseCount()).isEqualTo(1);
+    }
+
+    /**
+     * 풀의 최대 크기보다 큰 버퍼는 보관하지 않지만, 빌려 간 개수에는 똑같이 센다.
+     */
+    @Test
+    void testOversizedBufferIsNotPooled() {
+        final var pool = new BufferPool(1 << 16, 1 << 20);
+
+        final byte[] large = pool.acquire((1 << 16) + 1);
+        assertThat(pool.getOutstandingCount()).isEqualTo(1);
+        pool.release(large);
+
+        assertThat(pool.acquire((1 << 16) + 1)).isNotSameAs(large);
+        assertThat(pool.getReuseCount()).isZero();
+    }
+
+    @Test
+    void testRetainedBytesAreBounded() {
+        // 구간이 1KB 하나뿐이므로 2KB까지, 즉 버퍼 두 개만 보관한다.
+        final var pool = new BufferPool(1024, 2048);
+        final byte[][] buffers = {pool.acquire(1), pool.acquire(1), pool.acquire(1)};
+        for (final byte[] buffer : buffers) {
+            pool.release(buffer);
+        }
+
+        pool.acquire(1);
+        pool.acquire(1);
+        pool.acquire(1);
+
+        assertThat(pool.getReuseCount()).isEqualTo(2);
+        assertThat(pool.getAllocationCount()).isEqualTo(4);
+    }
+
+    /**
+     * 커지는 동안 빌린 버퍼는 모두 돌려줘야 한다. close()를 두 번 불러도 두 번 돌려주지 않는다.
+     */
+    @Test
+    void testGrowingStreamReturnsEveryBuffer() {
+        final var pool = new BufferPool(1 << 20, 1 << 24);
+        final var out = new PooledByteArrayOutputStream(pool, 1024);
+        final byte[] chunk = new byte[700];
+        for (int i = 0; i < 100; i++) {
+            out.write(chunk, 0, chunk.length);
+        }
+
+        assertThat(out.size()).isEqualTo(70_000);
+        assertThat(pool.getOutstandingCount()).isEqualTo(1);
+
+        out.close();
+        out.close();
+
+        assertThat(pool.getOutstandingCount()).isZero();
+    }
+
+    @Test
+    void testResponseWrapperCopiesBodyAndReleasesBuffer() throws IOException {
+        final var pool = new BufferPool(1 << 16, 1 << 20);
+        final var response = new MockHttpServletResponse();
+        final var wrapper = new PooledContentCachingResponseWrapper(response, pool);
+
+        wrapper.setCharacterEncoding("UTF-8");
+        wrapper.getWriter().write("Hello, World!");
+
+        assertThat(wrapper.getContentSize()).isEqualTo(13);
+        assertThat(response.getContentLength()).isZero();
+
+        wrapper.copyBodyToResponse();
+        wrapper.release();
+
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("Hello, World!");
+        assertThat(response.getContentLength()).isEqualTo(13);
+        assertThat(pool.getOutstandingCount()).isZero();
+    }
+
+    /**
+     * 본문을 모으는 동안에도 논블로킹 쓰기 리스너는 감싼 응답의 스트림에 넘겨야 컨테이너가 부를 수 있다.
+     */
+    @Test
+    void testResponseWrapperPassesWriteListenerToResponse() throws IOException {
+        final var outputStream = mock(ServletOutputStream.class);
+        final var response = mock(HttpServletResponse.class);
+        given(response.getOutputStream()).willReturn(outputStream);
+        final var wrapper = new PooledContentCachingResponseWrapper(response, new BufferPool(1 << 16, 1 << 20));
+        final var writeListener = mock(WriteListener.class);
+
+        wrapper.getOutputStream().setWriteListener(writeListener);
+
+        verify(outputStream).setWriteListener(writeListener);
+        assertThat(wrapper.getOutputStream().isReady()).isTrue();
+    }
+}
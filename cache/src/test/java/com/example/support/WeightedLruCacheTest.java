@@ -0,0 +1,35 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedLruCacheTest {
+
+    @Test
+    void testEvictLeastRecentlyUsedWhenOverWeight() {
+        final var cache = new WeightedLruCache<String, byte[]>(10, bytes -> bytes.length);
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+
+        // a를 읽었으므로 가장 오래 쓰지 않은 항목은 b다.
+        cache.get("a");
+        cache.put("c", new byte[4]);
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(cache.weight()).isEqualTo(8);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testValueHeavierThanMaxWeightIsNotStored() {
+        final var cache = new WeightedLruCache<String, byte[]>(10, bytes -> bytes.length);
+        cache.put("a", new byte[11]);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.hitCount()).isZero();
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+}
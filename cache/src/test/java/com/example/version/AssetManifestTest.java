@@ -0,0 +1,43 @@
+package com.example.version;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.DigestUtils;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssetManifestTest {
+
+    /**
+     * Gradle은 빌드할 때 만든 번들을 processResources 결과와 다른 classpath 루트에 둔다.
+     * 두 번째 루트의 파일에도 버전이 붙어야 한다.
+     */
+    @Test
+    void testScanEveryClasspathRoot(@TempDir final Path resources, @TempDir final Path generated) throws Exception {
+        write(resources.resolve("static/js/index.js"), "console.log('hello world');");
+        write(generated.resolve("static/bundles/app.js"), "console.log('bundle');");
+        write(generated.resolve("static/bundles/app.js.gz"), "gzip");
+
+        try (final var classLoader = new URLClassLoader(
+                new URL[]{resources.toUri().toURL(), generated.toUri().toURL()}, null)) {
+            final var manifest = new AssetManifest(new DefaultResourceLoader(classLoader));
+            manifest.init();
+
+            assertThat(manifest.getPaths()).containsExactlyInAnyOrder("js/index.js", "bundles/app.js");
+            assertThat(manifest.getUrl("/bundles/app.js")).isEqualTo(String.format("/resources/%s/bundles/app.js",
+                    DigestUtils.md5DigestAsHex("console.log('bundle');".getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    private static void write(final Path path, final String content) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.version;
+
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StaticUrlInliningConfigTest {
+
+    @Autowired
+    private HandlebarsViewResolver handlebarsViewResolver;
+
+    @Autowired
+    private AssetManifest manifest;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * 스타터가 템플릿 캐시를 정한 뒤에도 뷰 리졸버는 URL을 바꿔 두는 캐시를 쓴다.
+     */
+    @Test
+    void testViewResolverUsesInliningTemplateCache() {
+        assertThat(handlebarsViewResolver.getHandlebars().getCache())
+                .isInstanceOf(StaticUrlInliningTemplateCache.class);
+    }
+
+    @Test
+    void testRenderedPageContainsInlinedVersionedUrl() {
+        final var bundleUrl = manifest.getUrl("/bundles/app.js");
+
+        assertThat(bundleUrl).matches(PREFIX_STATIC_RESOURCES + "/[0-9a-f]{32}/bundles/app.js");
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("<script src=\"" + bundleUrl + "\"></script>"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.version;
+
+import com.github.jknack.handlebars.Handlebars;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class StaticUrlInliningTemplateCacheTest {
+
+    /**
+     * staticUrls 헬퍼를 등록하지 않은 Handlebars에서도 URL이 나오면 렌더링할 때 헬퍼를 호출하지 않는다는 뜻이다.
+     */
+    @Test
+    void testStaticUrlIsInlinedAtCompileTime() throws IOException {
+        final var manifest = mock(AssetManifest.class);
+        given(manifest.getDigest()).willReturn("digest");
+        given(manifest.getUrl("/js/index.js")).willReturn("/resources/abc/js/index.js");
+        final var handlebars = handlebars(manifest);
+
+        final var template = handlebars.compileInline("<script src=\"{{staticUrls '/js/index.js'}}\"></script>");
+        clearInvocations(manifest);
+
+        assertThat(template.apply(null)).isEqualTo("<script src=\"/resources/abc/js/index.js\"></script>");
+        assertThat(template.apply(null)).isEqualTo("<script src=\"/resources/abc/js/index.js\"></script>");
+        verify(manifest, never()).getUrl(anyString());
+    }
+
+    @Test
+    void testRecompileWhenManifestChanges() throws IOException {
+        final var manifest = mock(AssetManifest.class);
+        given(manifest.getDigest()).willReturn("first");
+        given(manifest.getUrl("/js/index.js")).willReturn("/resources/abc/js/index.js");
+        final var handlebars = handlebars(manifest);
+        final var source = "{{staticUrls \"/js/index.js\"}}";
+
+        assertThat(handlebars.compileInline(source).apply(null)).isEqualTo("/resources/abc/js/index.js");
+
+        given(manifest.getDigest()).willReturn("second");
+        given(manifest.getUrl("/js/index.js")).willReturn("/resources/def/js/index.js");
+
+        assertThat(handlebars.compileInline(source).apply(null)).isEqualTo("/resources/def/js/index.js");
+    }
+
+    @Test
+    void testBundleUrlIsInlinedAtCompileTime() throws IOException {
+        final var manifest = mock(AssetManifest.class);
+        given(manifest.getDigest()).willReturn("digest");
+        given(manifest.getUrl("/bundles/app.js")).willReturn("/resources/abc/bundles/app.js");
+
+        assertThat(handlebars(manifest).compileInline("{{bundleUrl 'app.js'}}").apply(null))
+                .isEqualTo("/resources/abc/bundles/app.js");
+    }
+
+    private static Handlebars handlebars(final AssetManifest manifest) {
+        return new Handlebars().with(new StaticUrlInliningTemplateCache(manifest, new PreloadLinks(manifest, "", "")));
+    }
+}
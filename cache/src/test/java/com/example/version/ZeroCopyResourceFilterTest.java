@@ -0,0 +1,206 @@
+package com.example.version;
+
+import com.example.UncompressedWebTestClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "cache.zero-copy.min-size=0")
+class ZeroCopyResourceFilterTest {
+
+    @Autowired
+    private AssetManifest manifest;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * 기준 크기를 0으로 내려서 모든 정적 파일을 ZeroCopyResourceFilter가 내려주게 한다.
+     * 본문과 헤더는 리소스 핸들러가 내려줄 때와 같아야 한다.
+     */
+    @Test
+    void testServeUnpackedFile() throws IOException {
+        final byte[] expected;
+        try (final InputStream inputStream = new ClassPathResource("static/js/index.js").getInputStream()) {
+            expected = inputStream.readAllBytes();
+        }
+
+        final var response = webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "identity")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentLength(expected.length)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, VersionedResource.etag(manifest.getVersion("js/index.js"), null))
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(byte[].class).returnResult();
+
+        assertThat(response.getResponseBody()).isEqualTo(expected);
+    }
+
+    /**
+     * gzip;q=0은 gzip을 거절한다는 뜻이므로 미리 압축한 파일을 보내면 안 된다.
+     */
+    @Test
+    void testRefusedGzipIsNotSent() {
+        UncompressedWebTestClient.bindToPort(port).get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectHeader().valueEquals(HttpHeaders.ETAG,
+                        VersionedResource.etag(manifest.getVersion("js/index.js"), null));
+    }
+
+    @Test
+    void testServeUnpackedPrecompressedFile() {
+        final var uncompressedClient = UncompressedWebTestClient.bindToPort(port);
+        final String etag = VersionedResource.etag(manifest.getVersion("js/index.js"), "gzip");
+
+        uncompressedClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+
+        uncompressedClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testSingleRange() throws IOException {
+        final byte[] content = content();
+
+        final var response = webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.RANGE, "bytes=2-9")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 2-9/" + content.length)
+                .expectHeader().contentLength(8)
+                .expectBody(byte[].class).returnResult();
+
+        assertThat(response.getResponseBody()).isEqualTo(Arrays.copyOfRange(content, 2, 10));
+    }
+
+    @Test
+    void testMultipleRanges() throws IOException {
+        final byte[] content = content();
+
+        final var response = webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.RANGE, "bytes=0-3,-4")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectBody(String.class).returnResult();
+
+        assertThat(response.getResponseHeaders().getContentType().toString()).startsWith("multipart/byteranges");
+        assertThat(response.getResponseBody())
+                .contains("Content-Range: bytes 0-3/" + content.length)
+                .contains("Content-Range: bytes " + (content.length - 4) + "-" + (content.length - 1) + "/" + content.length)
+                .contains(new String(Arrays.copyOfRange(content, 0, 4), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * If-Range의 ETag가 지금 파일과 다르면 Range를 무시하고 전체를 보낸다.
+     */
+    @Test
+    void testIfRangeMismatchReturnsWholeFile() throws IOException {
+        final byte[] content = content();
+
+        webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.RANGE, "bytes=0-3")
+                .header(HttpHeaders.IF_RANGE, "\"outdated\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class).isEqualTo(content);
+
+        webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.RANGE, "bytes=0-3")
+                .header(HttpHeaders.IF_RANGE, VersionedResource.etag(manifest.getVersion("js/index.js"), null))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @Test
+    void testUnsatisfiableRange() throws IOException {
+        final byte[] content = content();
+
+        webTestClient.get()
+                .uri(manifest.getUrl("/js/index.js"))
+                .header(HttpHeaders.RANGE, "bytes=" + content.length + "-")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */" + content.length);
+    }
+
+    /**
+     * 여러 클라이언트가 동시에 서로 다른 구간을 읽어도 각자 요청한 구간만 받는다.
+     */
+    @Test
+    void testParallelRangeReaders() throws Exception {
+        final byte[] content = content();
+        final String uri = manifest.getUrl("/js/index.js");
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            final List<Callable<Boolean>> readers = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                readers.add(() -> {
+                    final int start = ThreadLocalRandom.current().nextInt(content.length);
+                    final int end = start + ThreadLocalRandom.current().nextInt(content.length - start);
+                    final byte[] body = webTestClient.get()
+                            .uri(uri)
+                            .header(HttpHeaders.RANGE, "bytes=" + start + "-" + end)
+                            .exchange()
+                            .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                            .expectBody(byte[].class).returnResult().getResponseBody();
+                    return Arrays.equals(body, Arrays.copyOfRange(content, start, end + 1));
+                });
+            }
+            for (final Future<Boolean> result : executor.invokeAll(readers)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] content() throws IOException {
+        try (final InputStream inputStream = new ClassPathResource("static/js/index.js").getInputStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.counter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 여러 스레드가 같은 카운터를 올릴 때 AtomicLong, synchronized, StripedCounter의 처리량을 비교한다.
+ * 스레드 수를 바꿔 가며 돌려야 확장성 차이가 보인다.
+ * ./gradlew :servlet:jmh -PjmhIncludes=CounterBenchmark -PjmhThreads=1
+ * ./gradlew :servlet:jmh -PjmhIncludes=CounterBenchmark -PjmhThreads=64
+ * <br>
+ * read 그룹은 증가 7개 스레드와 읽기 1개 스레드를 섞어서 exact()와 approximate()의 비용을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CounterBenchmark {
+
+    private final AtomicLong atomic = new AtomicLong();
+    private final Object lock = new Object();
+    private long synchronizedValue;
+    private final StripedCounter striped = new StripedCounter();
+
+    @Benchmark
+    public long atomicLong() {
+        return atomic.incrementAndGet();
+    }
+
+    @Benchmark
+    public long synchronizedLong() {
+        synchronized (lock) {
+            return ++synchronizedValue;
+        }
+    }
+
+    @Benchmark
+    public void stripedCounter() {
+        striped.increment();
+    }
+
+    @Benchmark
+    @Group("exactRead")
+    @GroupThreads(7)
+    public void exactReadIncrement() {
+        striped.increment();
+    }
+
+    @Benchmark
+    @Group("exactRead")
+    @GroupThreads(1)
+    public long exactRead() {
+        return striped.exact();
+    }
+
+    @Benchmark
+    @Group("approximateRead")
+    @GroupThreads(7)
+    public void approximateReadIncrement() {
+        striped.increment();
+    }
+
+    @Benchmark
+    @Group("approximateRead")
+    @GroupThreads(1)
+    public long approximateRead() {
+        return striped.approximate();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+import static com.example.KoreanServlet.인코딩;
+
+/**
+ * KoreanServlet과 같은 응답을 비동기로 쓴다.
+ * service()는 startAsync()와 WriteListener 등록만 하고 바로 돌아가므로 요청 스레드는 응답을 다 보낼 때까지 기다리지 않는다.
+ */
+@WebServlet(name = "asyncKoreanServlet", urlPatterns = "/async/korean", asyncSupported = true)
+public class AsyncKoreanServlet extends HttpServlet {
+
+    @Override
+    public void init(final ServletConfig config) throws ServletException {
+        super.init(config);
+        getServletContext().log("init() 호출");
+    }
+
+    @Override
+    protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        getServletContext().log("service() 호출");
+        final int repeat;
+        try {
+            repeat = KoreanServlet.repeat(request);
+        } catch (final IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        final byte[] content = 인코딩.getBytes(response.getCharacterEncoding());
+        response.setContentLengthLong(RepeatingWriteListener.contentLength(content, repeat));
+
+        final var asyncContext = request.startAsync();
+        final var outputStream = response.getOutputStream();
+        outputStream.setWriteListener(new RepeatingWriteListener(asyncContext, outputStream, content, repeat));
+    }
+
+    @Override
+    public void destroy() {
+        getServletContext().log("destroy() 호출");
+    }
+}
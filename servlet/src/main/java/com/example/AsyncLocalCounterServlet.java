@@ -0,0 +1,44 @@
+package com.example;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LocalCounterServlet과 같은 응답을 비동기로 쓴다.
+ * 로컬 변수는 WriteListener로 넘어가도 다른 요청과 공유되지 않는다.
+ */
+@WebServlet(name = "asyncLocalCounterServlet", urlPatterns = "/async/local-counter", asyncSupported = true)
+public class AsyncLocalCounterServlet extends HttpServlet {
+
+    @Override
+    public void init(final ServletConfig config) throws ServletException {
+        super.init(config);
+        getServletContext().log("init() 호출");
+    }
+
+    @Override
+    protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        getServletContext().log("service() 호출");
+        response.addHeader("Content-Type", "text/html; charset=utf-8");
+        int localCounter = 0;
+        localCounter++;
+        final byte[] content = String.valueOf(localCounter).getBytes(StandardCharsets.UTF_8);
+        response.setContentLength(content.length);
+
+        final var asyncContext = request.startAsync();
+        final var outputStream = response.getOutputStream();
+        outputStream.setWriteListener(new RepeatingWriteListener(asyncContext, outputStream, content, 1));
+    }
+
+    @Override
+    public void destroy() {
+        getServletContext().log("destroy() 호출");
+    }
+}
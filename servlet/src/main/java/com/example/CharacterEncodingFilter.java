@@ -5,7 +5,10 @@ import jakarta.servlet.annotation.WebFilter;
 
 import java.io.IOException;
 
-@WebFilter("/*")
+/**
+ * 비동기 서블릿 앞에 있는 필터도 비동기를 지원해야 startAsync()를 부를 수 있다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class CharacterEncodingFilter implements Filter {
 
     @Override
@@ -0,0 +1,341 @@
+package com.example;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.tomcat.util.IntrospectionUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 커넥터의 프로토콜 구현과 튜닝 값을 묶은 것. TomcatStarter를 만들 때 적용한다.
+ * 지정하지 않은 값은 톰캣 기본값을 그대로 쓴다.
+ * <ul>
+ *     <li>default: 톰캣 기본값</li>
+ *     <li>low-latency: 작은 응답을 빠르게. Nagle 알고리즘을 끄고, 스레드를 미리 띄워 두고, keep-alive 연결을 계속 재사용한다.</li>
+ *     <li>high-concurrency: 연결이 많을 때. 연결, 대기열, 스레드 수를 늘리고 쉬는 연결은 빨리 닫는다.</li>
+ *     <li>bulk-transfer: 큰 응답을 보낼 때. NIO2, 큰 소켓 버퍼, sendfile을 쓰고 타임아웃을 늘린다.</li>
+ * </ul>
+ * 톰캣 10부터는 acceptor 스레드가 항상 하나이므로 acceptorThreadCount는 없다.
+ * <br>
+ * h2c(평문 HTTP/2)는 프리셋과 상관없이 켤 수 있다. 내부 서버끼리 작은 요청을 많이 보낼 때
+ * 요청마다 연결을 따로 열거나 앞 요청의 응답을 기다리지 않고 연결 하나에서 여러 요청을 동시에 주고받는다.
+ * <br>
+ * -Dtomcat.connector-profile=high-concurrency 처럼 시스템 프로퍼티로도 고를 수 있다.
+ */
+public final class ConnectorProfile {
+
+    public static final String PROFILE_PROPERTY = "tomcat.connector-profile";
+
+    /**
+     * true면 요청을 톰캣의 스레드 풀 대신 가상 스레드에서 처리한다. -Dtomcat.virtual-threads=true
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "tomcat.virtual-threads";
+
+    /**
+     * true면 HTTP/1.1 연결을 h2c로 업그레이드할 수 있다. -Dtomcat.h2c=true
+     */
+    public static final String H2C_PROPERTY = "tomcat.h2c";
+
+    public enum Protocol {
+        NIO("org.apache.coyote.http11.Http11NioProtocol"),
+        NIO2("org.apache.coyote.http11.Http11Nio2Protocol");
+
+        private final String className;
+
+        Protocol(final String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+    }
+
+    private final String name;
+    private final Protocol protocol;
+    private final boolean virtualThreads;
+    private final boolean h2c;
+    private final Map<String, String> properties;
+    private final Map<String, String> http2Properties;
+
+    private ConnectorProfile(final Builder builder) {
+        this.name = builder.name;
+        this.protocol = builder.protocol;
+        this.virtualThreads = builder.virtualThreads;
+        this.h2c = builder.h2c;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(builder.properties));
+        this.http2Properties = Collections.unmodifiableMap(new LinkedHashMap<>(builder.http2Properties));
+    }
+
+    public static ConnectorProfile defaults() {
+        return builder("default").build();
+    }
+
+    public static ConnectorProfile lowLatency() {
+        return builder("low-latency")
+                .tcpNoDelay(true)
+                .minSpareThreads(50)
+                .maxKeepAliveRequests(-1)
+                .keepAliveTimeout(Duration.ofSeconds(60))
+                .connectionTimeout(Duration.ofSeconds(5))
+                .useSendfile(false)
+                .build();
+    }
+
+    public static ConnectorProfile highConcurrency() {
+        return builder("high-concurrency")
+                .maxThreads(400)
+                .maxConnections(20_000)
+                .acceptCount(1_000)
+                .maxKeepAliveRequests(1_000)
+                .keepAliveTimeout(Duration.ofSeconds(15))
+                .connectionTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static ConnectorProfile bulkTransfer() {
+        return builder("bulk-transfer")
+                .protocol(Protocol.NIO2)
+                .maxThreads(100)
+                .socketReceiveBufferSize(256 * 1024)
+                .socketSendBufferSize(256 * 1024)
+                .useSendfile(true)
+                .maxKeepAliveRequests(100)
+                .connectionTimeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException 없는 프리셋 이름일 때
+     */
+    public static ConnectorProfile named(final String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "default":
+                return defaults();
+            case "low-latency":
+                return lowLatency();
+            case "high-concurrency":
+                return highConcurrency();
+            case "bulk-transfer":
+                return bulkTransfer();
+            default:
+                throw new IllegalArgumentException("unknown connector profile: " + name);
+        }
+    }
+
+    public static ConnectorProfile fromSystemProperties() {
+        return named(System.getProperty(PROFILE_PROPERTY, "default"))
+                .withVirtualThreads(Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY))
+                .withH2c(Boolean.getBoolean(H2C_PROPERTY));
+    }
+
+    public static Builder builder(final String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * 가상 스레드는 JDK 21 이상(JDK 19, 20은 --enable-preview)에서만 쓸 수 있다.
+     */
+    public ConnectorProfile withVirtualThreads(final boolean virtualThreads) {
+        return toBuilder().virtualThreads(virtualThreads).build();
+    }
+
+    public ConnectorProfile withH2c(final boolean h2c) {
+        return toBuilder().h2c(h2c).build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public boolean isH2c() {
+        return h2c;
+    }
+
+    /**
+     * @return 커넥터 프로퍼티 이름과 값. 소켓 옵션은 "socket." 접두사가 붙는다.
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return h2c를 켰을 때 Http2Protocol에 적용할 프로퍼티 이름과 값
+     */
+    public Map<String, String> getHttp2Properties() {
+        return http2Properties;
+    }
+
+    /**
+     * @throws IllegalStateException 커넥터의 프로토콜이 모르는 프로퍼티일 때
+     */
+    void applyTo(final Connector connector) {
+        properties.forEach((property, value) -> {
+            if (!connector.setProperty(property, value)) {
+                throw new IllegalStateException(String.format("%s does not support %s (profile %s)",
+                        connector.getProtocolHandlerClassName(), property, name));
+            }
+        });
+        if (h2c) {
+            connector.addUpgradeProtocol(createHttp2Protocol());
+        }
+    }
+
+    private Http2Protocol createHttp2Protocol() {
+        final var http2Protocol = new Http2Protocol();
+        http2Properties.forEach((property, value) -> {
+            if (!IntrospectionUtils.setProperty(http2Protocol, property, value)) {
+                throw new IllegalStateException(String.format("%s does not support %s (profile %s)",
+                        Http2Protocol.class.getName(), property, name));
+            }
+        });
+        return http2Protocol;
+    }
+
+    private Builder toBuilder() {
+        final Builder builder = new Builder(name)
+                .protocol(protocol)
+                .virtualThreads(virtualThreads)
+                .h2c(h2c);
+        builder.properties.putAll(properties);
+        builder.http2Properties.putAll(http2Properties);
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectorProfile{name='" + name + "', protocol=" + protocol
+                + ", virtualThreads=" + virtualThreads + ", h2c=" + h2c + ", properties=" + properties
+                + ", http2Properties=" + http2Properties + "}";
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final Map<String, String> properties = new LinkedHashMap<>();
+        private final Map<String, String> http2Properties = new LinkedHashMap<>();
+        private Protocol protocol = Protocol.NIO;
+        private boolean virtualThreads;
+        private boolean h2c;
+
+        private Builder(final String name) {
+            this.name = name;
+        }
+
+        public Builder protocol(final Protocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        public Builder virtualThreads(final boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder maxThreads(final int maxThreads) {
+            return property("maxThreads", maxThreads);
+        }
+
+        public Builder minSpareThreads(final int minSpareThreads) {
+            return property("minSpareThreads", minSpareThreads);
+        }
+
+        /**
+         * 동시에 열어 둘 수 있는 연결 수. 넘으면 acceptCount만큼 OS 대기열에서 기다린다.
+         */
+        public Builder maxConnections(final int maxConnections) {
+            return property("maxConnections", maxConnections);
+        }
+
+        public Builder acceptCount(final int acceptCount) {
+            return property("acceptCount", acceptCount);
+        }
+
+        /**
+         * 연결 하나로 처리할 요청 수. -1이면 제한하지 않는다.
+         */
+        public Builder maxKeepAliveRequests(final int maxKeepAliveRequests) {
+            return property("maxKeepAliveRequests", maxKeepAliveRequests);
+        }
+
+        public Builder keepAliveTimeout(final Duration keepAliveTimeout) {
+            return property("keepAliveTimeout", keepAliveTimeout.toMillis());
+        }
+
+        public Builder connectionTimeout(final Duration connectionTimeout) {
+            return property("connectionTimeout", connectionTimeout.toMillis());
+        }
+
+        public Builder socketReceiveBufferSize(final int bytes) {
+            return property("socket.rxBufSize", bytes);
+        }
+
+        public Builder socketSendBufferSize(final int bytes) {
+            return property("socket.txBufSize", bytes);
+        }
+
+        public Builder tcpNoDelay(final boolean tcpNoDelay) {
+            return property("socket.tcpNoDelay", tcpNoDelay);
+        }
+
+        /**
+         * 정적 파일을 커널에서 바로 소켓으로 보낸다. DefaultServlet이 sendfileSize(48KB)보다 큰 파일에만 쓴다.
+         */
+        public Builder useSendfile(final boolean useSendfile) {
+            return property("useSendfile", useSendfile);
+        }
+
+        /**
+         * HTTP/1.1 요청의 Upgrade: h2c를 받아들인다. TLS 없이 내부 구간에서만 쓴다.
+         */
+        public Builder h2c(final boolean h2c) {
+            this.h2c = h2c;
+            return this;
+        }
+
+        /**
+         * 연결 하나에서 동시에 열 수 있는 스트림 수. 톰캣 기본값은 100이다.
+         */
+        public Builder h2cMaxConcurrentStreams(final long maxConcurrentStreams) {
+            http2Properties.put("maxConcurrentStreams", String.valueOf(maxConcurrentStreams));
+            return this;
+        }
+
+        /**
+         * 연결 하나에서 동시에 요청 스레드를 쓸 수 있는 스트림 수. 넘는 스트림은 기다린다.
+         */
+        public Builder h2cMaxConcurrentStreamExecution(final int maxConcurrentStreamExecution) {
+            http2Properties.put("maxConcurrentStreamExecution", String.valueOf(maxConcurrentStreamExecution));
+            return this;
+        }
+
+        /**
+         * 스트림마다 받는 쪽이 ACK 없이 받을 수 있는 바이트 수. 톰캣 기본값은 65535다.
+         */
+        public Builder h2cInitialWindowSize(final int initialWindowSize) {
+            http2Properties.put("initialWindowSize", String.valueOf(initialWindowSize));
+            return this;
+        }
+
+        public ConnectorProfile build() {
+            return new ConnectorProfile(this);
+        }
+
+        private Builder property(final String property, final Object value) {
+            properties.put(property, String.valueOf(value));
+            return this;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 다른 서버를 호출하고 응답을 기다리는 서블릿을 흉내 낸다. delay(밀리초)만큼 요청 스레드가 블로킹된다.
+ * 응답 본문은 이 요청이 시작할 때 동시에 처리 중이던 요청 수(자신 포함)다.
+ * <br>
+ * 여러 스레드가 함께 쓰는 인스턴스 변수는 AtomicInteger처럼 스레드 안전한 객체여야 한다.
+ */
+@WebServlet(name = "downstreamServlet", urlPatterns = "/downstream")
+public class DownstreamServlet extends HttpServlet {
+
+    private static final long DEFAULT_DELAY_MILLIS = 100;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Override
+    protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        final int concurrent = inFlight.incrementAndGet();
+        try {
+            Thread.sleep(delayMillis(request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        response.getWriter().write(String.valueOf(concurrent));
+    }
+
+    private static long delayMillis(final HttpServletRequest request) {
+        final String delay = request.getParameter("delay");
+        return delay == null ? DEFAULT_DELAY_MILLIS : Long.parseLong(delay);
+    }
+}
@@ -14,6 +14,11 @@ public class KoreanServlet extends HttpServlet {
 
     public static final String 인코딩 = "인코딩";
 
+    /**
+     * 요청 하나가 응답을 끝없이 키우지 못하게 반복 횟수를 제한한다. 인코딩 100만 번이면 UTF-8로 약 9MB다.
+     */
+    static final int MAX_REPEAT = 1_000_000;
+
     @Override
     public void init(final ServletConfig config) throws ServletException {
         super.init(config);
@@ -23,7 +28,39 @@ public class KoreanServlet extends HttpServlet {
     @Override
     protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
         getServletContext().log("service() 호출");
-        response.getWriter().write(인코딩);
+        final int repeat;
+        try {
+            repeat = repeat(request);
+        } catch (final IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        final var writer = response.getWriter();
+        for (int i = repeat; i > 0; i--) {
+            writer.write(인코딩);
+        }
+    }
+
+    /**
+     * 큰 응답이 필요할 때 ?repeat=N으로 본문을 N번 반복한다. 기본값은 1이다.
+     *
+     * @throws IllegalArgumentException repeat가 숫자가 아니거나 0부터 {@link #MAX_REPEAT} 사이가 아닐 때
+     */
+    static int repeat(final HttpServletRequest request) {
+        final String value = request.getParameter("repeat");
+        if (value == null) {
+            return 1;
+        }
+        final int repeat;
+        try {
+            repeat = Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("repeat must be a number: " + value, e);
+        }
+        if (repeat < 0 || repeat > MAX_REPEAT) {
+            throw new IllegalArgumentException("repeat must be between 0 and " + MAX_REPEAT + ": " + value);
+        }
+        return repeat;
     }
 
     @Override
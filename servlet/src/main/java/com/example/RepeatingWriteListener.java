@@ -0,0 +1,70 @@
+package com.example;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+
+/**
+ * 같은 내용을 repeat번 이어서 논블로킹으로 쓴다.
+ * 소켓 버퍼가 가득 차면(isReady()가 false) 쓰기를 멈추고 돌아가므로 느린 클라이언트가 요청 스레드를 붙잡지 않는다.
+ * 버퍼가 비면 컨테이너가 onWritePossible()을 다시 부르고, 다 쓰면 비동기 요청을 끝낸다.
+ * <br>
+ * 본문 전체를 메모리에 만들지 않고 8KB 정도의 조각을 반복해서 쓴다.
+ */
+public class RepeatingWriteListener implements WriteListener {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream outputStream;
+    private final byte[] chunk;
+    private long remaining;
+
+    public RepeatingWriteListener(final AsyncContext asyncContext, final ServletOutputStream outputStream,
+                                  final byte[] content, final int repeat) {
+        this.asyncContext = asyncContext;
+        this.outputStream = outputStream;
+        this.chunk = chunkOf(content);
+        this.remaining = contentLength(content, repeat);
+    }
+
+    public static long contentLength(final byte[] content, final int repeat) {
+        return (long) content.length * repeat;
+    }
+
+    @Override
+    public void onWritePossible() throws IOException {
+        while (outputStream.isReady()) {
+            if (remaining == 0) {
+                asyncContext.complete();
+                return;
+            }
+            final int length = (int) Math.min(remaining, chunk.length);
+            outputStream.write(chunk, 0, length);
+            remaining -= length;
+        }
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        asyncContext.getRequest().getServletContext().log("응답을 쓰지 못했다", throwable);
+        asyncContext.complete();
+    }
+
+    /**
+     * 남은 길이는 항상 content 길이의 배수이므로 content를 통째로 반복한 조각을 잘라 써도 경계가 맞는다.
+     */
+    private static byte[] chunkOf(final byte[] content) {
+        if (content.length == 0) {
+            return content;
+        }
+        final int count = Math.max(1, CHUNK_SIZE / content.length);
+        final byte[] chunk = new byte[content.length * count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(content, 0, chunk, i * content.length, content.length);
+        }
+        return chunk;
+    }
+}
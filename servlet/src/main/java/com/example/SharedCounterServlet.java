@@ -1,5 +1,8 @@
 package com.example;
 
+import com.example.counter.CounterFile;
+import com.example.counter.CounterFlusher;
+import com.example.counter.StripedCounter;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -8,6 +11,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * Servlet 인터페이스의 service 메서드는 HTTP 요청 및 응답을 처리할 때 사용된다.
@@ -20,34 +25,63 @@ import java.io.IOException;
  * 실제 톰캣과 같은 서블릿 컨테이너도 서블릿 객체를 urlPatterns과 매핑한다.
  * <br>
  * 서블릿 컨테이너는 멀티 스레드로 서블릿을 관리하므로 인스턴스 변수가 다른 스레드에 공유되지 않도록 주의해야 한다.
+ * <br>
+ * -Dshared-counter.file=경로를 주면 카운터 값을 주기적으로(shared-counter.flush-interval, 기본 1000ms) 저장하고
+ * 다시 시작할 때 이어서 센다.
  */
 @WebServlet(name = "sharedCounterServlet", urlPatterns = "/shared-counter")
 public class SharedCounterServlet extends HttpServlet {
 
+    public static final String FILE_PROPERTY = "shared-counter.file";
+    public static final String FLUSH_INTERVAL_PROPERTY = "shared-counter.flush-interval";
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
     /**
-     * ❗아래 변수는 문제가 있다.
      * 서블릿의 인스턴스 변수는 다른 스레드와 공유된다.
-     * 서버는 여러 스레드에서 접근 가능하므로 서블릿에서 비즈니스 로직을 처리할 때 인스턴스 변수는 사용하지 않는다.
-     * 다른 사용자에게 공유되어도 문제가 없는 불변 객체라면 서블릿의 인스턴스 변수로 사용 가능하다.
+     * Integer를 ++하면 읽고, 더하고, 새 Integer를 만들어 쓰는 사이에 다른 스레드의 증가를 덮어써서 잃는다.
+     * 여러 스레드가 함께 올려야 하는 값은 StripedCounter처럼 스레드 안전한 객체에 둔다.
      */
-    private Integer sharedCounter;
+    private StripedCounter sharedCounter;
+    private CounterFlusher flusher;
 
     @Override
     public void init(final ServletConfig config) throws ServletException {
         super.init(config);
         getServletContext().log("init() 호출");
-        sharedCounter = 0;
+
+        final String file = System.getProperty(FILE_PROPERTY);
+        if (file == null) {
+            sharedCounter = new StripedCounter();
+            return;
+        }
+        try {
+            final var counterFile = new CounterFile(Path.of(file));
+            sharedCounter = new StripedCounter(counterFile.read());
+            flusher = new CounterFlusher(sharedCounter, counterFile,
+                    Duration.ofMillis(Long.getLong(FLUSH_INTERVAL_PROPERTY, DEFAULT_FLUSH_INTERVAL_MILLIS)));
+        } catch (IOException | NumberFormatException e) {
+            throw new ServletException("failed to restore shared counter from " + file, e);
+        }
     }
 
     @Override
     protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
         getServletContext().log("service() 호출");
-        sharedCounter++;
-        response.getWriter().write(String.valueOf(sharedCounter));
+        sharedCounter.increment();
+        response.getWriter().write(String.valueOf(sharedCounter.exact()));
     }
 
     @Override
     public void destroy() {
         getServletContext().log("destroy() 호출");
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.close();
+        } catch (IOException e) {
+            getServletContext().log("failed to flush shared counter", e);
+        }
     }
 }
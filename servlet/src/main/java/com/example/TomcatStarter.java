@@ -3,27 +3,63 @@ package com.example;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.connector.Connector;
 import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
 
 public class TomcatStarter {
 
     private static final String WEBAPP_DIR_LOCATION = "servlet/src/main/webapp/";
 
     private final Tomcat tomcat;
+    private final ConnectorProfile connectorProfile;
+    private final ExecutorService requestExecutor;
 
     public TomcatStarter() {
         this(WEBAPP_DIR_LOCATION);
     }
 
+    /**
+     * 커넥터 프로필과 가상 스레드 사용 여부는 시스템 프로퍼티로 정한다. {@link ConnectorProfile#fromSystemProperties()}
+     */
     public TomcatStarter(final String webappDirLocation) {
+        this(webappDirLocation, ConnectorProfile.fromSystemProperties());
+    }
+
+    public TomcatStarter(final String webappDirLocation, final boolean virtualThreads) {
+        this(webappDirLocation, ConnectorProfile.fromSystemProperties().withVirtualThreads(virtualThreads));
+    }
+
+    /**
+     * 서블릿이 다른 서버의 응답을 기다리며 블로킹되면 플랫폼 스레드 풀(기본 200개)이 모두 묶여서 다음 요청이 기다린다.
+     * 가상 스레드는 블로킹되는 동안 캐리어 스레드를 놓아주므로 스레드 수에 묶이지 않고 더 많은 요청을 동시에 처리한다.
+     * <br>
+     * 가상 스레드는 JDK 21 이상(JDK 19, 20은 --enable-preview)에서만 쓸 수 있다. 그보다 낮은 JDK면 시작하지 않고 예외를 던진다.
+     */
+    public TomcatStarter(final String webappDirLocation, final ConnectorProfile connectorProfile) {
         this.tomcat = new Tomcat();
+        this.connectorProfile = connectorProfile;
+        this.requestExecutor = connectorProfile.isVirtualThreads()
+                ? VirtualThreads.newExecutor("tomcat-virtual-")
+                : null;
         tomcat.setConnector(createConnector());
 
         final var docBase = new File(webappDirLocation).getAbsolutePath();
         tomcat.addWebapp("", docBase);
     }
 
+    public ConnectorProfile getConnectorProfile() {
+        return connectorProfile;
+    }
+
+    /**
+     * @return 지금 열려 있는 클라이언트 연결 수
+     */
+    public long getConnectionCount() {
+        return ((AbstractProtocol<?>) tomcat.getConnector().getProtocolHandler()).getConnectionCount();
+    }
+
     public void start() throws LifecycleException {
         tomcat.start();
     }
@@ -32,14 +68,24 @@ public class TomcatStarter {
         tomcat.getServer().await();
     }
 
+    /**
+     * 밖에서 넣어 준 Executor는 톰캣이 종료하지 않으므로 직접 종료한다.
+     */
     public void stop() throws LifecycleException {
         tomcat.stop();
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
     }
 
     private Connector createConnector() {
-        final var connector = new Connector();
+        final var connector = new Connector(connectorProfile.getProtocol().getClassName());
         connector.setPort(8080);
         connector.setProperty("bindOnInit", "false");
+        connectorProfile.applyTo(connector);
+        if (requestExecutor != null) {
+            connector.getProtocolHandler().setExecutor(requestExecutor);
+        }
         return connector;
     }
 }
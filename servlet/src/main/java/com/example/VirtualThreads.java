@@ -0,0 +1,64 @@
+package com.example;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 요청마다 가상 스레드를 하나씩 만드는 Executor.
+ * <br>
+ * 가상 스레드는 JDK 21부터 정식 기능이다. JDK 19, 20에서는 --enable-preview로 실행해야 하고 그보다 낮은 JDK에는 없다.
+ * 이 모듈은 Java 11로 컴파일하므로 Thread.ofVirtual()을 직접 부르지 않고 실행 중인 JDK에서 리플렉션으로 찾는다.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return 실행 중인 JDK에서 가상 스레드를 만들 수 있으면 true
+     */
+    public static boolean isSupported() {
+        try {
+            newThreadFactory("probe-").newThread(() -> {
+            });
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @throws IllegalStateException 실행 중인 JDK가 가상 스레드를 지원하지 않을 때
+     */
+    public static ExecutorService newExecutor(final String namePrefix) {
+        final ThreadFactory threadFactory = newThreadFactory(namePrefix);
+        try {
+            final Method newThreadPerTaskExecutor = Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw unsupported(e);
+        }
+    }
+
+    private static ThreadFactory newThreadFactory(final String namePrefix) {
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Object namedBuilder = builderType.getMethod("name", String.class, long.class)
+                    .invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(namedBuilder);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                 | InvocationTargetException e) {
+            throw unsupported(e);
+        }
+    }
+
+    private static IllegalStateException unsupported(final Exception cause) {
+        return new IllegalStateException("virtual threads require JDK 21 (or JDK 19+ with --enable-preview), "
+                + "running on " + System.getProperty("java.version"), cause);
+    }
+}
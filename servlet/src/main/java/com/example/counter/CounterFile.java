@@ -0,0 +1,41 @@
+package com.example.counter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 카운터 값을 파일 하나에 숫자로 저장한다.
+ * 임시 파일에 쓴 뒤 원자적으로 바꿔치기하므로 쓰는 도중에 프로세스가 죽어도 이전 값이나 새 값 중 하나는 남는다.
+ */
+public final class CounterFile {
+
+    private final Path path;
+    private final Path temporaryPath;
+
+    public CounterFile(final Path path) {
+        this.path = path;
+        this.temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /**
+     * @return 저장한 값. 파일이 없으면 0
+     */
+    public long read() throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(path, StandardCharsets.US_ASCII).trim());
+    }
+
+    public void write(final long value) throws IOException {
+        Files.writeString(temporaryPath, String.valueOf(value), StandardCharsets.US_ASCII);
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
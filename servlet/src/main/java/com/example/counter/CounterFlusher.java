@@ -0,0 +1,74 @@
+package com.example.counter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 카운터 값을 주기적으로 파일에 저장해서 재시작해도 이어서 센다.
+ * 값이 바뀌지 않았으면 쓰지 않는다. 닫을 때 마지막 값을 한 번 더 저장한다.
+ * 주기 사이에 프로세스가 죽으면 마지막 저장 이후의 증가는 잃는다.
+ */
+public final class CounterFlusher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterFlusher.class);
+
+    private final StripedCounter counter;
+    private final CounterFile file;
+    private final ScheduledExecutorService executor;
+    private long flushedValue;
+
+    public CounterFlusher(final StripedCounter counter, final CounterFile file, final Duration interval) {
+        this.counter = counter;
+        this.file = file;
+        this.flushedValue = counter.exact();
+
+        final var scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final var thread = new Thread(runnable, "counter-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        this.executor = scheduler;
+    }
+
+    /**
+     * @return 파일에 쓴 값
+     */
+    public synchronized long flush() throws IOException {
+        final long value = counter.exact();
+        if (value != flushedValue) {
+            file.write(value);
+            flushedValue = value;
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * 예약 작업이 예외를 던지면 다음 주기부터 실행되지 않으므로 한 번 실패해도 계속 시도한다.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            log.warn("failed to flush counter to {}", file.getPath(), e);
+        }
+    }
+}
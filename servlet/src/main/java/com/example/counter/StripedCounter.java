@@ -0,0 +1,76 @@
+package com.example.counter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 스레드가 동시에 올리는 카운터.
+ * 값 하나를 CAS로 올리면 스레드가 늘어날수록 같은 캐시 라인을 두고 재시도가 늘어난다.
+ * LongAdder는 경합이 생기면 셀을 (최대 CPU 코어 수만큼) 나눠서 스레드마다 다른 셀을 올리게 하므로 증가가 서로 막지 않는다.
+ * <ul>
+ *     <li>exact(): 모든 셀을 더한다. 호출하기 전에 끝난 증가는 모두 포함하고, 1씩 올리는 동안에는 어느 한 시점의 값과 같다.</li>
+ *     <li>approximate(): 마지막으로 더한 값을 정해 둔 시간 동안 재사용한다. volatile 읽기 한 번이다.</li>
+ * </ul>
+ */
+public final class StripedCounter {
+
+    private static final long DEFAULT_APPROXIMATION_MILLIS = 100;
+
+    private final LongAdder cells = new LongAdder();
+    private final long approximationNanos;
+    private volatile Snapshot snapshot;
+
+    public StripedCounter() {
+        this(0);
+    }
+
+    public StripedCounter(final long initialValue) {
+        this(initialValue, DEFAULT_APPROXIMATION_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public StripedCounter(final long initialValue, final long approximation, final TimeUnit unit) {
+        this.approximationNanos = unit.toNanos(approximation);
+        cells.add(initialValue);
+        // 첫 approximate()가 바로 다시 더하도록 이미 지난 스냅샷으로 시작한다. Long.MIN_VALUE로 두면 뺄셈이 넘친다.
+        this.snapshot = new Snapshot(initialValue, System.nanoTime() - approximationNanos);
+    }
+
+    public void increment() {
+        cells.increment();
+    }
+
+    public void add(final long delta) {
+        cells.add(delta);
+    }
+
+    public long exact() {
+        return cells.sum();
+    }
+
+    public long approximate() {
+        final long now = System.nanoTime();
+        final Snapshot current = snapshot;
+        if (now - current.takenAtNanos < approximationNanos) {
+            return current.value;
+        }
+        final long value = exact();
+        snapshot = new Snapshot(value, now);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(exact());
+    }
+
+    private static final class Snapshot {
+
+        private final long value;
+        private final long takenAtNanos;
+
+        private Snapshot(final long value, final long takenAtNanos) {
+            this.value = value;
+            this.takenAtNanos = takenAtNanos;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.KoreanServlet.인코딩;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncServletTest {
+
+    private static final String WEBAPP_DIR_LOCATION = "../servlet/src/main/webapp/";
+
+    /**
+     * 요청 스레드 4개, 작은 소켓 버퍼로 띄워서 응답을 읽지 않는 클라이언트 몇 개만으로도 버퍼가 가득 차게 한다.
+     */
+    private static final ConnectorProfile FEW_THREADS = ConnectorProfile.builder("few-threads")
+            .maxThreads(4)
+            .socketSendBufferSize(8 * 1024)
+            .build();
+    private static final int SLOW_READERS = 8;
+    private static final int LARGE_REPEAT = 100_000;
+
+    @Test
+    void testAsyncKorean() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
+        tomcatStarter.start();
+
+        final var response = TestHttpUtils.send("/async/korean");
+
+        tomcatStarter.stop();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(인코딩);
+    }
+
+    @Test
+    void testAsyncKoreanRejectsInvalidRepeat() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
+        tomcatStarter.start();
+        try {
+            for (final String repeat : List.of("abc", "", "-1", String.valueOf(KoreanServlet.MAX_REPEAT + 1))) {
+                assertThat(TestHttpUtils.send("/async/korean?repeat=" + repeat).statusCode()).as(repeat).isEqualTo(400);
+            }
+            assertThat(TestHttpUtils.send("/async/korean?repeat=2").body()).isEqualTo(인코딩 + 인코딩);
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    @Test
+    void testAsyncLocalCounter() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
+        tomcatStarter.start();
+
+        TestHttpUtils.send("/async/local-counter");
+        final var response = TestHttpUtils.send("/async/local-counter");
+
+        tomcatStarter.stop();
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(Integer.parseInt(response.body())).isEqualTo(1);
+    }
+
+    /**
+     * 큰 응답을 읽지 않는 클라이언트가 요청 스레드 수보다 많아도 비동기로 쓰면 다른 요청을 바로 처리한다.
+     */
+    @Test
+    void testSlowReadersDoNotPinRequestThreads() throws Exception {
+        final var tomcatStarter = new TomcatStarter(WEBAPP_DIR_LOCATION, FEW_THREADS);
+        tomcatStarter.start();
+        final var slowReaders = openSlowReaders("/async/korean?repeat=" + LARGE_REPEAT);
+        try {
+            final var response = TestHttpUtils.send("/local-counter");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+        } finally {
+            close(slowReaders);
+            tomcatStarter.stop();
+        }
+    }
+
+    /**
+     * 같은 상황에서 getWriter()로 쓰면 요청 스레드가 모두 소켓 쓰기에서 블로킹되어 다른 요청이 기다리다 타임아웃된다.
+     */
+    @Test
+    void testSlowReadersPinBlockingRequestThreads() throws Exception {
+        final var tomcatStarter = new TomcatStarter(WEBAPP_DIR_LOCATION, FEW_THREADS);
+        tomcatStarter.start();
+        final var slowReaders = openSlowReaders("/korean?repeat=" + LARGE_REPEAT);
+        try {
+            assertThatThrownBy(() -> TestHttpUtils.send("/local-counter"))
+                    .isInstanceOf(HttpTimeoutException.class);
+        } finally {
+            close(slowReaders);
+            tomcatStarter.stop();
+        }
+    }
+
+    /**
+     * 요청만 보내고 응답은 읽지 않는다. 받는 쪽 버퍼도 작게 잡아서 서버의 쓰기가 금방 막히게 한다.
+     */
+    private static List<Socket> openSlowReaders(final String path) throws Exception {
+        final List<Socket> sockets = new ArrayList<>(SLOW_READERS);
+        for (int i = 0; i < SLOW_READERS; i++) {
+            final var socket = new Socket();
+            socket.setReceiveBufferSize(4 * 1024);
+            socket.connect(new InetSocketAddress("localhost", 8080), 3_000);
+            final var request = "GET " + path + " HTTP/1.1\r\nHost: localhost:8080\r\n\r\n";
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+            sockets.add(socket);
+        }
+        // 서버가 요청을 받아 버퍼가 찰 때까지 쓰도록 잠시 기다린다.
+        Thread.sleep(500);
+        return sockets;
+    }
+
+    private static void close(final List<Socket> sockets) throws IOException {
+        for (final Socket socket : sockets) {
+            socket.close();
+        }
+    }
+}
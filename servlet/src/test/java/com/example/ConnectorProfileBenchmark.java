@@ -0,0 +1,135 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ConnectorProfile 프리셋마다 톰캣을 띄우고 같은 부하를 준 뒤 RPS와 지연 시간(p50, p99)을 출력한다.
+ * 클라이언트마다 keep-alive 연결로 응답을 받자마자 다음 요청을 보낸다.
+ * <br>
+ * ./gradlew :servlet:connectorBenchmark -PconnectorBenchmarkArgs="/korean 64 10"
+ * 인자는 차례대로 경로, 동시 클라이언트 수, 프리셋마다 잴 시간(초)이다.
+ */
+public class ConnectorProfileBenchmark {
+
+    private static final String WEBAPP_DIR_LOCATION = "../servlet/src/main/webapp/";
+    private static final List<String> PRESETS = List.of("default", "low-latency", "high-concurrency", "bulk-transfer");
+    private static final Duration WARM_UP = Duration.ofSeconds(2);
+
+    public static void main(final String[] args) throws Exception {
+        final String path = args.length > 0 ? args[0] : "/korean";
+        final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        final Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+
+        System.out.printf("path=%s clients=%d duration=%ds%n", path, clients, duration.getSeconds());
+        System.out.printf("%-18s %10s %10s %10s %8s%n", "profile", "rps", "p50(ms)", "p99(ms)", "errors");
+        for (final String preset : PRESETS) {
+            final var result = run(ConnectorProfile.named(preset), path, clients, duration);
+            System.out.printf("%-18s %10.0f %10.2f %10.2f %8d%n",
+                    preset, result.rps(), result.percentileMillis(0.5), result.percentileMillis(0.99), result.errors);
+        }
+    }
+
+    private static Result run(final ConnectorProfile profile, final String path, final int clients,
+                              final Duration duration) throws Exception {
+        final var tomcatStarter = new TomcatStarter(WEBAPP_DIR_LOCATION, profile);
+        tomcatStarter.start();
+        final ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            final var httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(3))
+                    .build();
+            final var request = HttpRequest.newBuilder(URI.create("http://localhost:8080" + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+
+            load(executor, httpClient, request, clients, WARM_UP);
+            return load(executor, httpClient, request, clients, duration);
+        } finally {
+            executor.shutdownNow();
+            tomcatStarter.stop();
+        }
+    }
+
+    private static Result load(final ExecutorService executor, final HttpClient httpClient, final HttpRequest request,
+                               final int clients, final Duration duration) throws Exception {
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final List<Future<Result>> workers = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            workers.add(executor.submit(() -> {
+                final var result = new Result(duration);
+                while (System.nanoTime() < deadline) {
+                    final long start = System.nanoTime();
+                    try {
+                        final var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            result.record(System.nanoTime() - start);
+                        } else {
+                            result.errors++;
+                        }
+                    } catch (IOException e) {
+                        result.errors++;
+                    }
+                }
+                return result;
+            }));
+        }
+
+        final var total = new Result(duration);
+        for (final Future<Result> worker : workers) {
+            total.merge(worker.get());
+        }
+        return total;
+    }
+
+    private static final class Result {
+
+        private final Duration duration;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private Result(final Duration duration) {
+            this.duration = duration;
+        }
+
+        void record(final long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void merge(final Result other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        double rps() {
+            return count / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(final double quantile) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            final long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            final int index = (int) Math.ceil(quantile * count) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConnectorProfileTest {
+
+    /**
+     * 프리셋의 값이 모두 커넥터가 아는 프로퍼티여서 그대로 적용되어야 한다.
+     * 엔드포인트는 포트를 열기 전까지 maxKeepAliveRequests를 1로 돌려주므로 빈 포트에 바인딩한 뒤 읽는다.
+     */
+    @Test
+    void testPresetsApplyToConnector() throws Exception {
+        for (final String name : List.of("default", "low-latency", "high-concurrency", "bulk-transfer")) {
+            final var profile = ConnectorProfile.named(name);
+            final var connector = new Connector(profile.getProtocol().getClassName());
+            connector.setPort(0);
+
+            profile.applyTo(connector);
+            connector.init();
+            try {
+                profile.getProperties().forEach((property, value) ->
+                        assertThat(String.valueOf(connector.getProperty(property))).as(name + " " + property)
+                                .isEqualTo(value));
+            } finally {
+                connector.destroy();
+            }
+        }
+    }
+
+    @Test
+    void testBulkTransferUsesNio2() {
+        final var connector = new Connector(ConnectorProfile.bulkTransfer().getProtocol().getClassName());
+
+        assertThat(connector.getProtocolHandlerClassName()).isEqualTo("org.apache.coyote.http11.Http11Nio2Protocol");
+    }
+
+    @Test
+    void testWithVirtualThreadsKeepsTuning() {
+        final var profile = ConnectorProfile.highConcurrency();
+
+        final var virtual = profile.withVirtualThreads(true);
+
+        assertThat(virtual.isVirtualThreads()).isTrue();
+        assertThat(virtual.getProtocol()).isEqualTo(profile.getProtocol());
+        assertThat(virtual.getProperties()).isEqualTo(profile.getProperties());
+    }
+
+    @Test
+    void testUnknownProfile() {
+        assertThatThrownBy(() -> ConnectorProfile.named("turbo"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
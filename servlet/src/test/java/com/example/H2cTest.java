@@ -0,0 +1,119 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ServletTest처럼 작은 요청을 여러 번 보내는 클라이언트가 HTTP/1.1과 h2c에서 연결을 몇 개 쓰는지 비교한다.
+ * HTTP/1.1은 동시에 보낸 요청마다 연결을 따로 열지만, h2c는 연결 하나에 스트림으로 모두 보낸다.
+ */
+class H2cTest {
+
+    private static final Logger log = LoggerFactory.getLogger(H2cTest.class);
+
+    private static final String WEBAPP_DIR_LOCATION = "../servlet/src/main/webapp/";
+    private static final String PATH = "/local-counter";
+    private static final int REQUESTS = 50;
+
+    @Test
+    void testMultiplexedOverSingleConnection() throws Exception {
+        final var profile = ConnectorProfile.defaults()
+                .withH2c(true);
+        final var http1 = fanOut(profile, HttpClient.Version.HTTP_1_1);
+        final var http2 = fanOut(profile, HttpClient.Version.HTTP_2);
+
+        log.info("HTTP/1.1 : {}", http1);
+        log.info("h2c      : {}", http2);
+
+        assertThat(http2.versions).containsOnly(HttpClient.Version.HTTP_2);
+        assertThat(http2.openedConnections).isZero();
+        assertThat(http1.openedConnections).isGreaterThan(http2.openedConnections);
+    }
+
+    /**
+     * JDK 16 미만의 HttpClient는 서버가 정한 동시 스트림 수를 넘기면 새 연결을 열지 않고 실패하므로 요청 수보다 크게 잡는다.
+     */
+    @Test
+    void testStreamTuning() throws Exception {
+        final var profile = ConnectorProfile.builder("tuned-h2c")
+                .h2c(true)
+                .h2cMaxConcurrentStreams(REQUESTS * 2)
+                .h2cMaxConcurrentStreamExecution(REQUESTS)
+                .h2cInitialWindowSize(1 << 20)
+                .build();
+
+        final var http2 = fanOut(profile, HttpClient.Version.HTTP_2);
+
+        assertThat(http2.versions).containsOnly(HttpClient.Version.HTTP_2);
+    }
+
+    /**
+     * 새 클라이언트로 요청 하나를 먼저 보내서 연결을 맺고(h2c는 이때 업그레이드한다), 나머지를 한꺼번에 보낸다.
+     * 톰캣의 연결 수에는 억셉터가 다음 연결을 위해 잡아 둔 자리도 들어가므로, 첫 요청 뒤의 값을 기준으로 새로 열린 연결만 센다.
+     */
+    private static FanOutResult fanOut(final ConnectorProfile profile, final HttpClient.Version version)
+            throws Exception {
+        final var tomcatStarter = new TomcatStarter(WEBAPP_DIR_LOCATION, profile);
+        tomcatStarter.start();
+        try {
+            final var httpClient = HttpClient.newBuilder()
+                    .version(version)
+                    .connectTimeout(Duration.ofSeconds(3))
+                    .build();
+            final var request = HttpRequest.newBuilder(URI.create("http://localhost:8080" + PATH))
+                    .timeout(Duration.ofSeconds(3))
+                    .build();
+            httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            final long baseline = tomcatStarter.getConnectionCount();
+
+            final long start = System.nanoTime();
+            final List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            final List<HttpClient.Version> versions = new ArrayList<>(REQUESTS);
+            for (final var response : responses) {
+                final var completed = response.join();
+                assertThat(completed.statusCode()).isEqualTo(200);
+                versions.add(completed.version());
+            }
+            final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            return new FanOutResult(versions, tomcatStarter.getConnectionCount() - baseline, elapsed);
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    private static final class FanOutResult {
+
+        private final List<HttpClient.Version> versions;
+        private final long openedConnections;
+        private final Duration elapsed;
+
+        private FanOutResult(final List<HttpClient.Version> versions, final long openedConnections,
+                             final Duration elapsed) {
+            this.versions = versions;
+            this.openedConnections = openedConnections;
+            this.elapsed = elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, opened connections=%d, elapsed=%dms",
+                    versions.size(), openedConnections, elapsed.toMillis());
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.example;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.example.KoreanServlet.인코딩;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ServletTest {
@@ -28,6 +33,50 @@ class ServletTest {
         assertThat(Integer.parseInt(response.body())).isEqualTo(3);
     }
 
+    /**
+     * 여러 클라이언트가 동시에 올려도 잃어버리는 증가가 없다.
+     */
+    @Test
+    void testSharedCounterUnderConcurrentRequests() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
+        tomcatStarter.start();
+        try {
+            final var REQUESTS = 500;
+            for (final var response : TestHttpUtils.sendConcurrently("/shared-counter", REQUESTS)) {
+                assertThat(response.join().statusCode()).isEqualTo(200);
+            }
+
+            assertThat(Integer.parseInt(TestHttpUtils.send("/shared-counter").body())).isEqualTo(REQUESTS + 1);
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    /**
+     * shared-counter.file을 주면 서버를 다시 시작해도 이전 값에 이어서 센다.
+     */
+    @Test
+    void testSharedCounterSurvivesRestart(@TempDir final Path tempDir) throws Exception {
+        System.setProperty(SharedCounterServlet.FILE_PROPERTY, tempDir.resolve("shared-counter").toString());
+        try {
+            final var PATH = "/shared-counter";
+            final var first = TestHttpUtils.createTomcatStarter();
+            first.start();
+            TestHttpUtils.send(PATH);
+            TestHttpUtils.send(PATH);
+            first.stop();
+
+            final var second = TestHttpUtils.createTomcatStarter();
+            second.start();
+            final var response = TestHttpUtils.send(PATH);
+            second.stop();
+
+            assertThat(Integer.parseInt(response.body())).isEqualTo(3);
+        } finally {
+            System.clearProperty(SharedCounterServlet.FILE_PROPERTY);
+        }
+    }
+
     @Test
     void testLocalCounter() throws Exception {
         // 톰캣 서버 시작
@@ -49,4 +98,21 @@ class ServletTest {
         // 예상한 결과가 나왔는가? 왜 이런 결과가 나왔을까?
         assertThat(Integer.parseInt(response.body())).isEqualTo(1);
     }
+
+    /**
+     * repeat가 숫자가 아니거나 범위를 벗어나면 500 대신 400으로 거절한다.
+     */
+    @Test
+    void testKoreanRejectsInvalidRepeat() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
+        tomcatStarter.start();
+        try {
+            for (final String repeat : List.of("abc", "", "-1", String.valueOf(KoreanServlet.MAX_REPEAT + 1))) {
+                assertThat(TestHttpUtils.send("/korean?repeat=" + repeat).statusCode()).as(repeat).isEqualTo(400);
+            }
+            assertThat(TestHttpUtils.send("/korean?repeat=2").body()).isEqualTo(인코딩 + 인코딩);
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
 }
@@ -5,24 +5,47 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class TestHttpUtils {
 
+    private static final String WEBAPP_DIR_LOCATION = "../servlet/src/main/webapp/";
+
     private static final HttpClient httpClient = HttpClient.newBuilder()
             .version(HttpClient.Version.HTTP_1_1)
             .connectTimeout(Duration.ofSeconds(3))
             .build();
 
     public static TomcatStarter createTomcatStarter() {
-        return new TomcatStarter("../servlet/src/main/webapp/");
+        return new TomcatStarter(WEBAPP_DIR_LOCATION);
+    }
+
+    public static TomcatStarter createTomcatStarter(final boolean virtualThreads) {
+        return new TomcatStarter(WEBAPP_DIR_LOCATION, virtualThreads);
     }
 
     public static HttpResponse<String> send(final String path) throws Exception {
-        final var request = HttpRequest.newBuilder()
+        return httpClient.send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * 같은 요청을 count번 동시에 보낸다. HTTP/1.1이므로 요청마다 연결을 따로 연다.
+     */
+    public static List<CompletableFuture<HttpResponse<String>>> sendConcurrently(final String path, final int count) {
+        final var request = request(path);
+        final List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        return responses;
+    }
+
+    private static HttpRequest request(final String path) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create("http://localhost:8080" + path))
                 .timeout(Duration.ofSeconds(3))
                 .build();
-
-        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
     }
 }
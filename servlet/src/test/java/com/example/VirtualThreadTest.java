@@ -0,0 +1,91 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 다른 서버를 기다리느라 블로킹되는 요청을 톰캣 기본 스레드 풀(200개)보다 많이 동시에 보낸다.
+ * 플랫폼 스레드는 200개까지만 동시에 처리하고 나머지는 기다리지만, 가상 스레드는 한꺼번에 처리한다.
+ * 부하 중의 힙 사용량과 스레드 수도 함께 남긴다.
+ * <br>
+ * 가상 스레드를 지원하지 않는 JDK(21 미만)에서는 건너뛴다.
+ */
+@EnabledIf("com.example.VirtualThreads#isSupported")
+class VirtualThreadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadTest.class);
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int REQUESTS = 1_000;
+    private static final long DELAY_MILLIS = 200;
+    private static final String PATH = "/downstream?delay=" + DELAY_MILLIS;
+
+    @Test
+    void testConcurrentRequestCapacity() throws Exception {
+        final var platform = load(false);
+        final var virtual = load(true);
+
+        log.info("platform threads : {}", platform);
+        log.info("virtual threads  : {}", virtual);
+
+        assertThat(platform.peakConcurrency).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+        assertThat(virtual.peakConcurrency).isGreaterThan(TOMCAT_MAX_THREADS);
+        assertThat(virtual.elapsed).isLessThan(platform.elapsed);
+    }
+
+    private static LoadResult load(final boolean virtualThreads) throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(virtualThreads);
+        tomcatStarter.start();
+        try {
+            System.gc();
+            final long start = System.nanoTime();
+            final var responses = TestHttpUtils.sendConcurrently(PATH, REQUESTS);
+
+            // 요청이 서블릿에서 블로킹되어 있는 동안 잰다.
+            Thread.sleep(DELAY_MILLIS / 2);
+            final long usedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            final int liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            int peakConcurrency = 0;
+            for (final var response : responses) {
+                final var completed = response.join();
+                assertThat(completed.statusCode()).isEqualTo(200);
+                peakConcurrency = Math.max(peakConcurrency, Integer.parseInt(completed.body()));
+            }
+            final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            return new LoadResult(peakConcurrency, elapsed, usedHeap, liveThreads);
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    private static final class LoadResult {
+
+        private final int peakConcurrency;
+        private final Duration elapsed;
+        private final long usedHeap;
+        private final int liveThreads;
+
+        private LoadResult(final int peakConcurrency, final Duration elapsed, final long usedHeap,
+                           final int liveThreads) {
+            this.peakConcurrency = peakConcurrency;
+            this.elapsed = elapsed;
+            this.usedHeap = usedHeap;
+            this.liveThreads = liveThreads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("peak concurrency=%d, elapsed=%dms, heap used=%dKB, live platform threads=%d",
+                    peakConcurrency, elapsed.toMillis(), usedHeap / 1024, liveThreads);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.counter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedCounterTest {
+
+    private static final int THREADS = 64;
+    private static final int INCREMENTS = 100_000;
+
+    /**
+     * 64개 스레드가 한꺼번에 올려도 잃어버리는 증가가 없다.
+     */
+    @Test
+    void testNoLostUpdates() throws Exception {
+        final var counter = new StripedCounter();
+        final var start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            final var thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int j = 0; j < INCREMENTS; j++) {
+                    counter.increment();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (final var thread : threads) {
+            thread.join();
+        }
+
+        assertThat(counter.exact()).isEqualTo((long) THREADS * INCREMENTS);
+    }
+
+    /**
+     * approximate()는 정해 둔 시간 동안 마지막으로 더한 값을 그대로 돌려준다.
+     */
+    @Test
+    void testApproximate() throws Exception {
+        final var counter = new StripedCounter(10, 50, TimeUnit.MILLISECONDS);
+        assertThat(counter.approximate()).isEqualTo(10);
+
+        counter.add(5);
+        assertThat(counter.approximate()).isEqualTo(10);
+        assertThat(counter.exact()).isEqualTo(15);
+
+        Thread.sleep(100);
+        assertThat(counter.approximate()).isEqualTo(15);
+    }
+
+    @Test
+    void testFlushAndRestore(@TempDir final Path tempDir) throws Exception {
+        final var file = new CounterFile(tempDir.resolve("counter"));
+        assertThat(file.read()).isZero();
+
+        final var counter = new StripedCounter(file.read());
+        try (final var flusher = new CounterFlusher(counter, file, Duration.ofMinutes(1))) {
+            counter.add(41);
+            assertThat(flusher.flush()).isEqualTo(41);
+            counter.increment();
+        }
+
+        // 닫을 때 마지막 값을 저장한다.
+        assertThat(new StripedCounter(file.read()).exact()).isEqualTo(42);
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}